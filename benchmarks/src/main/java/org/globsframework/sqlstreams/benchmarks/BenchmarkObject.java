@@ -0,0 +1,51 @@
+package org.globsframework.sqlstreams.benchmarks;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.metamodel.annotations.KeyField;
+import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.SqlConnection;
+
+public class BenchmarkObject {
+
+    public static GlobType TYPE;
+
+    @KeyField
+    public static IntegerField ID;
+
+    public static StringField NAME;
+
+    public static DoubleField VALUE;
+
+    public static LongField COUNT;
+
+    public static BooleanField PRESENT;
+
+    public static BlobField DATA;
+
+    static {
+        GlobTypeLoaderFactory.create(BenchmarkObject.class).load();
+    }
+
+    public static GlobList create(int rows) {
+        GlobList globs = new GlobList();
+        for (int i = 0; i < rows; i++) {
+            globs.add(TYPE.instantiate()
+                  .set(ID, i)
+                  .set(NAME, "name " + i)
+                  .set(VALUE, i * 1.5)
+                  .set(COUNT, (long) i << 20)
+                  .set(PRESENT, (i & 1) == 0)
+                  .set(DATA, new byte[]{(byte) i, (byte) (i >> 8), 1, 2, 3, 4, 5, 6}));
+        }
+        return globs;
+    }
+
+    public static void populate(SqlConnection db, int rows) {
+        db.createTable(TYPE);
+        db.emptyTable(TYPE);
+        db.populate(create(rows));
+        db.commit();
+    }
+}
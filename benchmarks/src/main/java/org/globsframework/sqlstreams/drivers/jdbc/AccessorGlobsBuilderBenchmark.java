@@ -0,0 +1,117 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.model.MutableGlob;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.Accessor;
+import org.globsframework.streams.accessors.utils.ValueDoubleAccessor;
+import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
+import org.globsframework.streams.accessors.utils.ValueStringAccessor;
+import org.globsframework.utils.collections.MultiMap;
+import org.globsframework.utils.collections.Pair;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/*
+materialization of 1M rows : previous MultiMap/Pair based builder against the precompiled one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AccessorGlobsBuilderBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final String[] NAMES = {"a", "b", "c", "d"};
+
+    @Benchmark
+    public GlobList precompiled() {
+        GlobStream globStream = new DummyGlobStream(ROWS);
+        AccessorGlobsBuilder builder = AccessorGlobsBuilder.init(globStream);
+        GlobList result = new GlobList();
+        while (globStream.next()) {
+            result.add(builder.getGlob());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public GlobList multiMap() {
+        GlobStream globStream = new DummyGlobStream(ROWS);
+        MultiMap<GlobType, Pair<Field, Accessor>> accessors = new MultiMap<>();
+        for (Field field : globStream.getFields()) {
+            accessors.put(field.getGlobType(), new Pair<>(field, globStream.getAccessor(field)));
+        }
+        GlobList result = new GlobList();
+        while (globStream.next()) {
+            List<Glob> globs = new ArrayList<>();
+            for (Map.Entry<GlobType, List<Pair<Field, Accessor>>> entry : accessors.entries()) {
+                MutableGlob glob = entry.getKey().instantiate();
+                for (Pair<Field, Accessor> pair : entry.getValue()) {
+                    glob.setValue(pair.getFirst(), pair.getSecond().getObjectValue());
+                }
+                globs.add(glob);
+            }
+            result.addAll(globs);
+        }
+        return result;
+    }
+
+    private static class DummyGlobStream implements GlobStream {
+        private final Map<Field, Accessor> accessors = new LinkedHashMap<>();
+        private final ValueIntegerAccessor id = new ValueIntegerAccessor();
+        private final ValueStringAccessor name = new ValueStringAccessor("");
+        private final ValueDoubleAccessor value = new ValueDoubleAccessor(0.);
+        private final int count;
+        private int current;
+
+        DummyGlobStream(int count) {
+            this.count = count;
+            accessors.put(BenchmarkObject.ID, id);
+            accessors.put(BenchmarkObject.NAME, name);
+            accessors.put(BenchmarkObject.VALUE, value);
+        }
+
+        public boolean next() {
+            if (current == count) {
+                return false;
+            }
+            current++;
+            id.setValue(current);
+            name.setValue(NAMES[current & 3]);
+            value.setValue(current * 1.5);
+            return true;
+        }
+
+        public Collection<Field> getFields() {
+            return accessors.keySet();
+        }
+
+        public Accessor getAccessor(Field field) {
+            return accessors.get(field);
+        }
+
+        public void close() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(AccessorGlobsBuilderBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
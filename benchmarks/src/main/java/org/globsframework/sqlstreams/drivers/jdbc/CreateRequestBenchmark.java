@@ -0,0 +1,109 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.CreateBuilder;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.streams.accessors.utils.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+insert of ROWS rows per operation, SqlCreateRequest.run one statement per row against the bulk request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateRequestBenchmark {
+    private static final int ROWS = 1000;
+    private static final byte[] DATA = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    private final ValueIntegerAccessor id = new ValueIntegerAccessor();
+    private final ValueStringAccessor name = new ValueStringAccessor(null);
+    private final ValueDoubleAccessor value = new ValueDoubleAccessor(null);
+    private final ValueLongAccessor count = new ValueLongAccessor(null);
+    private final ValueBooleanAccessor present = new ValueBooleanAccessor(null);
+    private final ValueBlobAccessor data = new ValueBlobAccessor(DATA);
+    private SqlConnection db;
+
+    @Setup
+    public void setUp() {
+        JdbcSqlService sqlService = new JdbcSqlService("jdbc:hsqldb:mem:createRequestBenchmark", "sa", "");
+        db = sqlService.getDb();
+        db.createTable(BenchmarkObject.TYPE);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clear() {
+        db.emptyTable(BenchmarkObject.TYPE);
+        db.commit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.rollbackAndClose();
+    }
+
+    @Benchmark
+    public void single() {
+        SqlRequest request = getCreateBuilder().getRequest();
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                next(i);
+                request.run();
+            }
+        } finally {
+            request.close();
+        }
+    }
+
+    @Benchmark
+    public void bulk() {
+        BulkDbRequest request = getCreateBuilder().getBulkRequest();
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                next(i);
+                request.run();
+            }
+            request.flush();
+        } finally {
+            request.close();
+        }
+    }
+
+    private CreateBuilder getCreateBuilder() {
+        return db.getCreateBuilder(BenchmarkObject.TYPE)
+              .set(BenchmarkObject.ID, id)
+              .set(BenchmarkObject.NAME, name)
+              .set(BenchmarkObject.VALUE, value)
+              .set(BenchmarkObject.COUNT, count)
+              .set(BenchmarkObject.PRESENT, present)
+              .set(BenchmarkObject.DATA, data);
+    }
+
+    private void next(int i) {
+        id.setValue(i);
+        name.setValue("name " + i);
+        value.setValue(i * 1.5);
+        count.setValue((long) i);
+        present.setValue((i & 1) == 0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(CreateRequestBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+materialization of a selectAll : gc.alloc.rate.norm / rows gives the allocation per glob.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteAsGlobsBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int rows;
+
+    private SqlConnection db;
+
+    @Setup
+    public void setUp() {
+        JdbcSqlService sqlService = new JdbcSqlService("jdbc:hsqldb:mem:executeAsGlobsBenchmark", "sa", "");
+        db = sqlService.getDb();
+        BenchmarkObject.populate(db, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.rollbackAndClose();
+    }
+
+    @Benchmark
+    public GlobList executeAsGlobs() {
+        return db.getQueryBuilder(BenchmarkObject.TYPE)
+              .selectAll()
+              .getQuery().executeAsGlobs();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(ExecuteAsGlobsBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+SqlGlobStream iteration over ROWS rows, one column read through its typed accessor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobStreamBenchmark {
+    private static final int ROWS = 10000;
+
+    @Param({"ID", "NAME", "VALUE", "COUNT", "PRESENT", "DATA"})
+    public String fieldName;
+
+    private SqlConnection db;
+    private Field field;
+
+    @Setup
+    public void setUp() {
+        JdbcSqlService sqlService = new JdbcSqlService("jdbc:hsqldb:mem:globStreamBenchmark", "sa", "");
+        db = sqlService.getDb();
+        BenchmarkObject.populate(db, ROWS);
+        field = BenchmarkObject.TYPE.findField(fieldName);
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.rollbackAndClose();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        GlobStream globStream = db.getQueryBuilder(BenchmarkObject.TYPE)
+              .select(field)
+              .getQuery().execute();
+        try {
+            Accessor accessor = globStream.getAccessor(field);
+            if (accessor instanceof IntegerAccessor) {
+                IntegerAccessor integerAccessor = (IntegerAccessor) accessor;
+                while (globStream.next()) {
+                    blackhole.consume(integerAccessor.getValue(0));
+                }
+            } else if (accessor instanceof LongAccessor) {
+                LongAccessor longAccessor = (LongAccessor) accessor;
+                while (globStream.next()) {
+                    blackhole.consume(longAccessor.getValue(0));
+                }
+            } else if (accessor instanceof DoubleAccessor) {
+                DoubleAccessor doubleAccessor = (DoubleAccessor) accessor;
+                while (globStream.next()) {
+                    blackhole.consume(doubleAccessor.getValue(0.));
+                }
+            } else if (accessor instanceof BooleanAccessor) {
+                BooleanAccessor booleanAccessor = (BooleanAccessor) accessor;
+                while (globStream.next()) {
+                    blackhole.consume(booleanAccessor.getValue(false));
+                }
+            } else if (accessor instanceof StringAccessor) {
+                StringAccessor stringAccessor = (StringAccessor) accessor;
+                while (globStream.next()) {
+                    blackhole.consume(stringAccessor.getString());
+                }
+            } else {
+                while (globStream.next()) {
+                    blackhole.consume(accessor.getObjectValue());
+                }
+            }
+        } finally {
+            globStream.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(GlobStreamBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
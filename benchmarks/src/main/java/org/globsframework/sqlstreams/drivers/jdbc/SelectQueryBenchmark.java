@@ -0,0 +1,85 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.model.Glob;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+run main() : gc.alloc.rate.norm gives the allocation per query with and without the compiled select cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectQueryBenchmark {
+    private static final int COUNT = 100;
+
+    @Param({"true", "false"})
+    public boolean compiledSelectCache;
+
+    private SqlConnection db;
+    private int id;
+
+    @Setup
+    public void setUp() {
+        JdbcSqlService sqlService = new JdbcSqlService("jdbc:hsqldb:mem:selectBenchmark", "sa", "");
+        if (!compiledSelectCache) {
+            sqlService.setCompiledSelectCacheSize(0);
+        }
+        db = sqlService.getDb();
+        db.createTable(BenchmarkObject.TYPE);
+        db.emptyTable(BenchmarkObject.TYPE);
+        for (int i = 0; i < COUNT; i++) {
+            db.getCreateBuilder(BenchmarkObject.TYPE)
+                  .set(BenchmarkObject.ID, i)
+                  .set(BenchmarkObject.NAME, "name " + i)
+                  .set(BenchmarkObject.VALUE, (double) i)
+                  .getRequest().run();
+        }
+        db.commit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.rollbackAndClose();
+    }
+
+    @Benchmark
+    public Glob selectByKey() {
+        id = (id + 1) % COUNT;
+        return db.getQueryBuilder(BenchmarkObject.TYPE, Constraints.equal(BenchmarkObject.ID, id))
+              .select(BenchmarkObject.ID)
+              .select(BenchmarkObject.NAME)
+              .select(BenchmarkObject.VALUE)
+              .getQuery().executeUnique();
+    }
+
+    // SqlQueryBuilder -> SqlSelectQuery only : sql generation and statement preparation (or cache lookup).
+    @Benchmark
+    public void buildQuery() {
+        db.getQueryBuilder(BenchmarkObject.TYPE, Constraints.equal(BenchmarkObject.ID, id))
+              .select(BenchmarkObject.ID)
+              .select(BenchmarkObject.NAME)
+              .select(BenchmarkObject.VALUE)
+              .getQuery().close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(SelectQueryBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
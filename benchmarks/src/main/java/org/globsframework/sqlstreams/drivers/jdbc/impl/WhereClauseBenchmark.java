@@ -0,0 +1,76 @@
+package org.globsframework.sqlstreams.drivers.jdbc.impl;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sqlstreams.utils.StringPrettyWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+rendering of the where clause alone, for a single equal, an 'in' of 100 values and a tree of 20 and/or.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhereClauseBenchmark {
+
+    @Param({"equal", "in", "tree"})
+    public String shape;
+
+    private JdbcSqlService sqlService;
+    private Constraint constraint;
+
+    @Setup
+    public void setUp() {
+        sqlService = new JdbcSqlService("jdbc:hsqldb:mem:whereClauseBenchmark", "sa", "");
+        switch (shape) {
+            case "equal":
+                constraint = Constraints.equal(BenchmarkObject.ID, 1);
+                break;
+            case "in":
+                Set<Integer> values = new HashSet<>();
+                for (int i = 0; i < 100; i++) {
+                    values.add(i);
+                }
+                constraint = Constraints.in(BenchmarkObject.ID, values);
+                break;
+            default:
+                constraint = null;
+                for (int i = 0; i < 10; i++) {
+                    constraint = Constraints.and(constraint,
+                          Constraints.or(Constraints.equal(BenchmarkObject.ID, i),
+                                Constraints.equal(BenchmarkObject.NAME, "name " + i)));
+                }
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        StringPrettyWriter prettyWriter = new StringPrettyWriter();
+        Set<GlobType> globTypes = new HashSet<>();
+        constraint.visit(new WhereClauseConstraintVisitor(prettyWriter, sqlService, globTypes));
+        return prettyWriter.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(WhereClauseBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package org.globsframework.sqlstreams.drivers.mongodb;
+
+import com.github.fakemongo.Fongo;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.globsframework.model.Glob;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/*
+GlobCodec alone, to and from the bson binary form of a glob with all the field types set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobCodecBenchmark {
+    private GlobCodec codec;
+    private Glob glob;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        MongoDbService sqlService = new MongoDbService(new Fongo("codecBenchmark").getDatabase("benchmark"));
+        codec = new GlobCodec(BenchmarkObject.TYPE, sqlService);
+        glob = BenchmarkObject.create(2).get(1);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        codec.encode(new BsonBinaryWriter(buffer), glob, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Glob decode() {
+        return codec.decode(new BsonBinaryReader(ByteBuffer.wrap(encoded)), DecoderContext.builder().build());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(GlobCodecBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
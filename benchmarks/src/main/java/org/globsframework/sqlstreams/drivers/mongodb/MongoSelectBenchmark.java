@@ -0,0 +1,62 @@
+package org.globsframework.sqlstreams.drivers.mongodb;
+
+import com.github.fakemongo.Fongo;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.benchmarks.BenchmarkObject;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+select against fongo : the numbers include the in memory server, compare runs between them only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MongoSelectBenchmark {
+    private static final int ROWS = 1000;
+
+    private SqlConnection db;
+    private int id;
+
+    @Setup
+    public void setUp() {
+        MongoDbService sqlService = new MongoDbService(new Fongo("selectBenchmark").getDatabase("benchmark"));
+        db = sqlService.getDb();
+        db.populate(BenchmarkObject.create(ROWS));
+    }
+
+    @Benchmark
+    public Glob selectByKey() {
+        id = (id + 1) % ROWS;
+        return db.getQueryBuilder(BenchmarkObject.TYPE, Constraints.equal(BenchmarkObject.ID, id))
+              .selectAll()
+              .getQuery().executeUnique();
+    }
+
+    @Benchmark
+    public GlobList executeAsGlobs() {
+        return db.getQueryBuilder(BenchmarkObject.TYPE)
+              .selectAll()
+              .getQuery().executeAsGlobs();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+              .include(MongoSelectBenchmark.class.getSimpleName())
+              .addProfiler(GCProfiler.class)
+              .build();
+        new Runner(options).run();
+    }
+}
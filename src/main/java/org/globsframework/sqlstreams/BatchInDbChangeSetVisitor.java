@@ -0,0 +1,175 @@
+package org.globsframework.sqlstreams;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.ChangeSetVisitor;
+import org.globsframework.model.FieldValues;
+import org.globsframework.model.FieldValuesWithPrevious;
+import org.globsframework.model.Key;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.utils.KeyChunks;
+import org.globsframework.streams.accessors.Accessor;
+
+import java.util.*;
+
+/**
+ * Same as InDbChangeSetVisitor but changes are grouped per type and written on flush() :
+ * creations and updates with the same fields share one bulk request, deletions are sent in chunks of keys
+ * ('key IN (...)', or or-ed key equalities on a composite key) binding at most maxParameters values.
+ * For each type (in visit order), deletions are written first, then updates, then creations : a value of
+ * a unique index freed by a deletion can be taken by an other row of the same change set.
+ */
+public class BatchInDbChangeSetVisitor implements ChangeSetVisitor {
+    private final SqlConnection sqlConnection;
+    private final Map<GlobType, TypeChanges> changes = new LinkedHashMap<>();
+    private int maxParameters = KeyChunks.DEFAULT_MAX_PARAMETERS;
+
+    public BatchInDbChangeSetVisitor(SqlConnection sqlConnection) {
+        this.sqlConnection = sqlConnection;
+    }
+
+    public void setMaxParameters(int maxParameters) {
+        this.maxParameters = Math.max(1, maxParameters);
+    }
+
+    public void visitCreation(Key key, FieldValues values) throws Exception {
+        Map<Field, Object> row = new HashMap<>();
+        key.applyOnKeyField(row::put);
+        values.apply(row::put);
+        getChanges(key.getGlobType()).add(row, true);
+    }
+
+    public void visitUpdate(Key key, FieldValuesWithPrevious values) throws Exception {
+        Map<Field, Object> row = new HashMap<>();
+        values.apply((field, value) -> {
+            if (!field.isKeyField()) {
+                row.put(field, value);
+            }
+        });
+        if (row.isEmpty()) {
+            return;
+        }
+        key.applyOnKeyField(row::put);
+        getChanges(key.getGlobType()).add(row, false);
+    }
+
+    public void visitDeletion(Key key, FieldValues values) throws Exception {
+        getChanges(key.getGlobType()).deletions.add(key);
+    }
+
+    public void flush() {
+        try {
+            for (TypeChanges typeChanges : changes.values()) {
+                typeChanges.write();
+            }
+        } finally {
+            changes.clear();
+        }
+    }
+
+    private TypeChanges getChanges(GlobType globType) {
+        return changes.computeIfAbsent(globType, TypeChanges::new);
+    }
+
+    private class TypeChanges {
+        private final GlobType globType;
+        private final Map<List<Field>, List<Object[]>> creations = new LinkedHashMap<>();
+        private final Map<List<Field>, List<Object[]>> updates = new LinkedHashMap<>();
+        private final List<Key> deletions = new ArrayList<>();
+
+        TypeChanges(GlobType globType) {
+            this.globType = globType;
+        }
+
+        void add(Map<Field, Object> row, boolean creation) {
+            List<Field> fields = new ArrayList<>(row.size());
+            for (Field field : globType.getFields()) {
+                if (row.containsKey(field)) {
+                    fields.add(field);
+                }
+            }
+            Object[] values = new Object[fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.get(fields.get(i));
+            }
+            (creation ? creations : updates).computeIfAbsent(fields, f -> new ArrayList<>()).add(values);
+        }
+
+        void write() {
+            if (!deletions.isEmpty()) {
+                for (List<Key> chunk : KeyChunks.split(deletions, maxParameters).get(globType)) {
+                    SqlRequest request = sqlConnection.getDeleteRequest(globType, Constraints.keysIn(chunk));
+                    try {
+                        request.run();
+                    } finally {
+                        request.close();
+                    }
+                }
+            }
+            for (Map.Entry<List<Field>, List<Object[]>> entry : updates.entrySet()) {
+                List<Field> fields = entry.getKey();
+                RowAccessors row = new RowAccessors(fields.size());
+                Constraint keyConstraint = null;
+                List<Field> updated = new ArrayList<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    if (fields.get(i).isKeyField()) {
+                        keyConstraint = Constraints.and(keyConstraint, Constraints.equalsObject(fields.get(i), row.accessors[i]));
+                    } else {
+                        updated.add(fields.get(i));
+                    }
+                }
+                UpdateBuilder updateBuilder = sqlConnection.getUpdateBuilder(globType, keyConstraint);
+                for (Field field : updated) {
+                    updateBuilder.updateUntyped(field, row.accessors[fields.indexOf(field)]);
+                }
+                run(updateBuilder.getBulkRequest(), row, entry.getValue());
+            }
+            for (Map.Entry<List<Field>, List<Object[]>> entry : creations.entrySet()) {
+                RowAccessors row = new RowAccessors(entry.getKey().size());
+                CreateBuilder createBuilder = sqlConnection.getCreateBuilder(globType);
+                for (int i = 0; i < row.accessors.length; i++) {
+                    createBuilder.setObject(entry.getKey().get(i), row.accessors[i]);
+                }
+                run(createBuilder.getBulkRequest(), row, entry.getValue());
+            }
+        }
+
+        private void run(SqlRequest request, RowAccessors row, List<Object[]> rows) {
+            try {
+                for (Object[] values : rows) {
+                    row.values = values;
+                    request.run();
+                }
+            } finally {
+                request.close();
+            }
+        }
+    }
+
+    private static class RowAccessors {
+        private final Accessor[] accessors;
+        private Object[] values;
+
+        RowAccessors(int count) {
+            accessors = new Accessor[count];
+            for (int i = 0; i < count; i++) {
+                accessors[i] = new ColumnAccessor(this, i);
+            }
+        }
+    }
+
+    private static class ColumnAccessor implements Accessor {
+        private final RowAccessors row;
+        private final int index;
+
+        ColumnAccessor(RowAccessors row, int index) {
+            this.row = row;
+            this.index = index;
+        }
+
+        public Object getObjectValue() {
+            return row.values[index];
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.globsframework.sqlstreams;
+
+public enum FetchStrategy {
+    // the whole result is loaded by the driver on execute
+    BUFFERED,
+    // rows are sent one by one (mysql streaming results)
+    STREAMING,
+    // rows are read by blocks of fetchSize
+    CURSOR
+}
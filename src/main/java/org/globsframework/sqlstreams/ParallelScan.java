@@ -0,0 +1,291 @@
+package org.globsframework.sqlstreams;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.fields.IntegerField;
+import org.globsframework.metamodel.fields.LongField;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnectionPool;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcSqlService;
+import org.globsframework.sqlstreams.utils.AsyncExecutors;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Split a select on the [min, max] range of an integer/long field (the key field by default) in partitions,
+ * each one read on its own connection (from the pool) and its own thread.
+ * At most concurrency partitions are read at the same time, by default the number of processors
+ * bounded by the size of the connection pool : the other partitions wait for a free reader.
+ * Rows with a null partition field are read in an extra partition. No order is kept between partitions.
+ */
+public class ParallelScan {
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final Object END = new Object();
+    private final SqlService sqlService;
+    private final GlobType globType;
+    private Constraint constraint;
+    private Field partitionField;
+    private int partitionCount = Runtime.getRuntime().availableProcessors();
+    private int concurrency;
+    private Field[] fields;
+    private Executor executor = AsyncExecutors.getDefault();
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    public ParallelScan(SqlService sqlService, GlobType globType) {
+        this.sqlService = sqlService;
+        this.globType = globType;
+        Field[] keyFields = globType.getKeyFields();
+        if (keyFields.length == 1 && isNumeric(keyFields[0])) {
+            partitionField = keyFields[0];
+        }
+    }
+
+    public ParallelScan where(Constraint constraint) {
+        this.constraint = constraint;
+        return this;
+    }
+
+    public ParallelScan partitionBy(Field field) {
+        if (!isNumeric(field)) {
+            throw new UnexpectedApplicationState("Partition field must be an integer or a long : " + field.getName());
+        }
+        this.partitionField = field;
+        return this;
+    }
+
+    public ParallelScan partitions(int partitionCount) {
+        this.partitionCount = Math.max(1, partitionCount);
+        return this;
+    }
+
+    // max partitions read at the same time, each one holds a connection.
+    public ParallelScan concurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    // selectAll if not set.
+    public ParallelScan select(Field... fields) {
+        this.fields = fields;
+        return this;
+    }
+
+    public ParallelScan executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    // max rows read ahead by stream().
+    public ParallelScan queueSize(int queueSize) {
+        this.queueSize = Math.max(1, queueSize);
+        return this;
+    }
+
+    // the consumer is called concurrently from the partition threads.
+    // cancelling the future stops the reads.
+    public CompletableFuture<Void> forEach(Consumer<Glob> consumer) {
+        Queue<Constraint> partitions = new ConcurrentLinkedQueue<>(getPartitions());
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = getReaderCount(partitions.size()); i > 0; i--) {
+            // the first failure completes the result : the other readers stop at their next row.
+            futures.add(CompletableFuture.runAsync(() -> readAll(partitions, consumer, result::isDone), executor)
+                  .whenComplete((v, e) -> {
+                      if (e != null) {
+                          result.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                      }
+                  }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+              .whenComplete((v, e) -> result.complete(null));
+        return result;
+    }
+
+    // the partitions are read in background in a bounded queue ; the stream must be closed.
+    public Stream<Glob> stream() {
+        Queue<Constraint> partitions = new ConcurrentLinkedQueue<>(getPartitions());
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueSize);
+        int readerCount = getReaderCount(partitions.size());
+        QueueIterator iterator = new QueueIterator(queue, readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            executor.execute(() -> {
+                Object last = END;
+                try {
+                    readAll(partitions, glob -> iterator.put(glob), iterator::isClosed);
+                } catch (Throwable e) {
+                    last = e;
+                }
+                iterator.put(last);
+            });
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+              .onClose(iterator::close);
+    }
+
+    private int getReaderCount(int partitions) {
+        int max = concurrency;
+        if (max == 0) {
+            max = Runtime.getRuntime().availableProcessors();
+            JdbcConnectionPool pool = sqlService instanceof JdbcSqlService ? ((JdbcSqlService) sqlService).getConnectionPool() : null;
+            if (pool != null) {
+                max = Math.min(max, pool.getMaxSize());
+            }
+        }
+        return Math.max(1, Math.min(max, partitions));
+    }
+
+    private void readAll(Queue<Constraint> partitions, Consumer<Glob> consumer, BooleanSupplier cancelled) {
+        Constraint partition;
+        while (!cancelled.getAsBoolean() && (partition = partitions.poll()) != null) {
+            read(partition, consumer, cancelled);
+        }
+    }
+
+    private void read(Constraint partition, Consumer<Glob> consumer, BooleanSupplier cancelled) {
+        SqlConnection sqlConnection = sqlService.getDb();
+        try {
+            SelectBuilder builder = sqlConnection.getQueryBuilder(globType, Constraints.and(constraint, partition));
+            if (fields == null) {
+                builder.selectAll();
+            } else {
+                for (Field field : fields) {
+                    builder.select(field);
+                }
+            }
+            try (Stream<?> stream = builder.getQuery().executeAsStream()) {
+                Iterator<?> iterator = stream.iterator();
+                while (!cancelled.getAsBoolean() && iterator.hasNext()) {
+                    consumer.accept((Glob) iterator.next());
+                }
+            }
+        } finally {
+            sqlConnection.rollbackAndClose();
+        }
+    }
+
+    List<Constraint> getPartitions() {
+        if (partitionField == null) {
+            throw new UnexpectedApplicationState("No integer or long key on " + globType.getName() + ", a partition field is needed");
+        }
+        List<Constraint> partitions = new ArrayList<>();
+        SqlConnection sqlConnection = sqlService.getDb();
+        try {
+            Number min = getBound(sqlConnection, true);
+            if (min != null) {
+                // the width of a long range can exceed Long.MAX_VALUE : the bounds are computed without overflow.
+                BigInteger first = BigInteger.valueOf(min.longValue());
+                BigInteger size = BigInteger.valueOf(getBound(sqlConnection, false).longValue()).subtract(first).add(BigInteger.ONE);
+                BigInteger count = size.min(BigInteger.valueOf(partitionCount));
+                long start = first.longValue();
+                for (int i = 1; i <= count.intValue(); i++) {
+                    Constraint partition = Constraints.greater(partitionField, toValue(start));
+                    if (i < count.intValue()) {
+                        long end = first.add(size.multiply(BigInteger.valueOf(i)).divide(count)).longValue();
+                        partition = Constraints.and(partition, Constraints.strictlyLess(partitionField, toValue(end)));
+                        start = end;
+                    }
+                    partitions.add(partition);
+                }
+            }
+        } finally {
+            sqlConnection.rollbackAndClose();
+        }
+        if (!partitionField.isKeyField()) {
+            partitions.add(Constraints.isNull(partitionField));
+        }
+        return partitions;
+    }
+
+    private Number getBound(SqlConnection sqlConnection, boolean min) {
+        SelectBuilder builder = sqlConnection.getQueryBuilder(globType,
+              Constraints.and(constraint, Constraints.isNotNull(partitionField)))
+              .select(partitionField)
+              .top(1);
+        if (min) {
+            builder.orderAsc(partitionField);
+        } else {
+            builder.orderDesc(partitionField);
+        }
+        GlobList globs = builder.getQuery().executeAsGlobs();
+        return globs.isEmpty() ? null : (Number) globs.get(0).getValue(partitionField);
+    }
+
+    private Object toValue(long value) {
+        return partitionField instanceof IntegerField ? (Object) Math.toIntExact(value) : (Object) value;
+    }
+
+    private static boolean isNumeric(Field field) {
+        return field instanceof IntegerField || field instanceof LongField;
+    }
+
+    private static class QueueIterator implements Iterator<Glob> {
+        private final BlockingQueue<Object> queue;
+        private int running;
+        private volatile boolean closed;
+        private Object next;
+
+        QueueIterator(BlockingQueue<Object> queue, int running) {
+            this.queue = queue;
+            this.running = running;
+        }
+
+        void put(Object value) {
+            try {
+                while (!closed && !queue.offer(value, 100, TimeUnit.MILLISECONDS)) {
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UnexpectedApplicationState("Interrupted", e);
+            }
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        public boolean hasNext() {
+            while (next == null && running > 0) {
+                Object value;
+                try {
+                    value = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UnexpectedApplicationState("Interrupted", e);
+                }
+                if (value == END) {
+                    running--;
+                } else if (value instanceof Throwable) {
+                    close();
+                    throw new UnexpectedApplicationState("Partition read failed", (Throwable) value);
+                } else {
+                    next = value;
+                }
+            }
+            return next != null;
+        }
+
+        public Glob next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Glob glob = (Glob) next;
+            next = null;
+            return glob;
+        }
+    }
+}
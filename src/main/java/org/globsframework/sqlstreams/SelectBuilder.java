@@ -2,6 +2,7 @@ package org.globsframework.sqlstreams;
 
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.Ref;
 
@@ -37,6 +38,16 @@ public interface SelectBuilder {
 
     SelectBuilder top(int n);
 
+    // use a CURSOR fetch of n rows if no strategy is set.
+    SelectBuilder fetchSize(int n);
+
+    // the default depend on the driver (see JdbcConnection.setDefaultFetchStrategy)
+    SelectBuilder fetchStrategy(FetchStrategy strategy);
+
+    // keyset pagination : select the rows after lastValues in the current order (by key if none), key fields are
+    // added as tie-breaker. Use with top(n) ; lastValues is read at each execution.
+    SelectBuilder startAfter(FieldValues lastValues);
+
     SelectBuilder withKeys();
 
     IntegerAccessor retrieve(IntegerField field);
@@ -19,11 +19,11 @@ public interface SelectQuery extends AutoCloseable {
 
     Glob executeUnique() throws ItemNotFound, TooManyItems;
 
-//    <T> CompletableFuture<T> executeAsFutureStream(Consumer<?> consumer, Consumer<?> onComplete);
-//
-//    <T> CompletableFuture<T> executeAsFutureGlobStream(Consumer<?> consumer, Consumer<?> onComplete);
-//
-//    <T> CompletableFuture<T> executeAsFutureGlobs(Consumer<?> consumer, Consumer<?> onComplete);
+    // the consumer is called on the executor thread; the next row is read once it returns.
+    // cancelling the future stops the read and closes the cursor.
+    CompletableFuture<Void> executeAsFutureStream(Consumer<Glob> consumer);
+
+    CompletableFuture<GlobList> executeAsFutureGlobs();
 
     void close();
 }
@@ -1,12 +1,18 @@
 package org.globsframework.sqlstreams;
 
+import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.FieldValues;
+import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.exceptions.DbConstraintViolation;
 import org.globsframework.sqlstreams.exceptions.RollbackFailed;
 
 import java.sql.Connection;
+import java.util.Collection;
+import java.util.Map;
 
 public interface SqlConnection {
 
@@ -24,6 +30,15 @@ public interface SqlConnection {
 
     SqlRequest getDeleteRequest(GlobType globType, Constraint constraint);
 
+    // keys are grouped per type and sent by bounded chunks
+    void deleteByKeys(Collection<Key> keys);
+
+    // set the same values (key fields are ignored) on all the keys
+    void updateByKeys(Collection<Key> keys, FieldValues values);
+
+    // key to glob for the keys found ; keys are read by bounded chunks (all fields if none given).
+    Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys, Field... fields);
+
     void commit() throws RollbackFailed, DbConstraintViolation;
 
     void commitAndClose() throws RollbackFailed, DbConstraintViolation;
@@ -36,4 +36,6 @@ public interface UpdateBuilder {
 
     SqlRequest getRequest();
 
+    BulkDbRequest getBulkRequest();
+
 }
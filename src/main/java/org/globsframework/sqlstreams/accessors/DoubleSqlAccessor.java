@@ -1,5 +1,6 @@
 package org.globsframework.sqlstreams.accessors;
 
+import org.globsframework.sqlstreams.drivers.jdbc.SqlGlobStream;
 import org.globsframework.streams.accessors.DoubleAccessor;
 
 public class DoubleSqlAccessor extends SqlAccessor implements DoubleAccessor {
@@ -9,12 +10,17 @@ public class DoubleSqlAccessor extends SqlAccessor implements DoubleAccessor {
     }
 
     public double getValue(double valueIfNull) {
-        Double value = getDouble();
-        return value == null ? valueIfNull : value;
+        SqlGlobStream moStream = getSqlMoStream();
+        double value = moStream.getDoubleValue(getIndex());
+        return moStream.wasNull(getIndex()) ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getDouble() == null;
+        SqlGlobStream moStream = getSqlMoStream();
+        if (!moStream.isRead(getIndex())) {
+            moStream.getDoubleValue(getIndex());
+        }
+        return moStream.wasNull(getIndex());
     }
 
     public Object getObjectValue() {
@@ -1,5 +1,6 @@
 package org.globsframework.sqlstreams.accessors;
 
+import org.globsframework.sqlstreams.drivers.jdbc.SqlGlobStream;
 import org.globsframework.streams.accessors.IntegerAccessor;
 
 public class IntegerSqlAccessor extends SqlAccessor implements IntegerAccessor {
@@ -9,12 +10,17 @@ public class IntegerSqlAccessor extends SqlAccessor implements IntegerAccessor {
     }
 
     public int getValue(int valueIfNull) {
-        Integer value = getInteger();
-        return value == null ? valueIfNull : value;
+        SqlGlobStream moStream = getSqlMoStream();
+        int value = moStream.getIntValue(getIndex());
+        return moStream.wasNull(getIndex()) ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getInteger() == null;
+        SqlGlobStream moStream = getSqlMoStream();
+        if (!moStream.isRead(getIndex())) {
+            moStream.getIntValue(getIndex());
+        }
+        return moStream.wasNull(getIndex());
     }
 
     public Object getObjectValue() {
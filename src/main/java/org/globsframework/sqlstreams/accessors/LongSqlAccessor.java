@@ -1,5 +1,6 @@
 package org.globsframework.sqlstreams.accessors;
 
+import org.globsframework.sqlstreams.drivers.jdbc.SqlGlobStream;
 import org.globsframework.streams.accessors.LongAccessor;
 
 public class LongSqlAccessor extends SqlAccessor implements LongAccessor {
@@ -9,12 +10,17 @@ public class LongSqlAccessor extends SqlAccessor implements LongAccessor {
     }
 
     public long getValue(long valueIfNull) {
-        Long value = getLong();
-        return value == null ? valueIfNull : value;
+        SqlGlobStream moStream = getSqlMoStream();
+        long value = moStream.getLongValue(getIndex());
+        return moStream.wasNull(getIndex()) ? valueIfNull : value;
     }
 
     public boolean wasNull() {
-        return getLong() == null;
+        SqlGlobStream moStream = getSqlMoStream();
+        if (!moStream.isRead(getIndex())) {
+            moStream.getLongValue(getIndex());
+        }
+        return moStream.wasNull(getIndex());
     }
 
     public Object getObjectValue() {
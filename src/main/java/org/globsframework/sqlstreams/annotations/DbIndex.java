@@ -48,6 +48,16 @@ public class DbIndex {
               .load();
     }
 
+    // the indices of the model and the one given by the DbIndex annotation of the type.
+    static public List<Index> getIndices(GlobType globType) {
+        List<Index> indices = new ArrayList<>(globType.getIndices());
+        Glob annotation = globType.findAnnotation(KEY);
+        if (annotation != null) {
+            indices.add(createIndex(globType, annotation));
+        }
+        return indices;
+    }
+
     static public Index createIndex(GlobType globType, Glob index) {
         List<Field> fields = new ArrayList<>();
         index.getOpt(FIELD_1).ifPresent(s -> fields.add(globType.getField(s)));
@@ -55,7 +65,7 @@ public class DbIndex {
         index.getOpt(FIELD_3).ifPresent(s -> fields.add(globType.getField(s)));
         index.getOpt(FIELD_4).ifPresent(s -> fields.add(globType.getField(s)));
 
-        if (index.size() == 1) {
+        if (fields.size() == 1) {
             if (index.get(INDEX_TYPE, "unique").equals("unique")) {
                 return new DefaultUniqueIndex(index.get(NAME), fields.get(0));
             }
@@ -0,0 +1,94 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.SelectQuery;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.utils.exceptions.ItemNotFound;
+import org.globsframework.utils.exceptions.TooManyItems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// execute() and executeAsFutureStream() always read the db.
+class CachedSelectQuery implements SelectQuery {
+    private final SelectQuery query;
+    private final GlobType globType;
+    private final List<Object> key;
+    private final Constraint constraint;
+    private final QueryCache queryCache;
+
+    CachedSelectQuery(SelectQuery query, GlobType globType, List<Object> key, Constraint constraint, QueryCache queryCache) {
+        this.query = query;
+        this.globType = globType;
+        this.key = key;
+        this.constraint = constraint;
+        this.queryCache = queryCache;
+    }
+
+    public Stream<?> executeAsStream() {
+        return executeAsGlobs().stream();
+    }
+
+    public GlobStream execute() {
+        return query.execute();
+    }
+
+    public GlobList executeAsGlobs() {
+        List<Object> currentKey = getKey();
+        GlobList globs = queryCache.get(currentKey);
+        if (globs == null) {
+            long generation = queryCache.getGeneration(globType);
+            globs = query.executeAsGlobs();
+            queryCache.put(globType, currentKey, globs, generation);
+            return globs;
+        }
+        query.close();
+        return globs;
+    }
+
+    public Glob executeUnique() throws ItemNotFound, TooManyItems {
+        GlobList globs = executeAsGlobs();
+        if (globs.size() == 1) {
+            return globs.get(0);
+        }
+        if (globs.isEmpty()) {
+            throw new ItemNotFound("No result returned for: " + globType.getName());
+        }
+        throw new TooManyItems("Too many results for: " + globType.getName());
+    }
+
+    public CompletableFuture<Void> executeAsFutureStream(Consumer<Glob> consumer) {
+        return query.executeAsFutureStream(consumer);
+    }
+
+    public CompletableFuture<GlobList> executeAsFutureGlobs() {
+        List<Object> currentKey = getKey();
+        GlobList globs = queryCache.get(currentKey);
+        if (globs != null) {
+            query.close();
+            return CompletableFuture.completedFuture(globs);
+        }
+        long generation = queryCache.getGeneration(globType);
+        return query.executeAsFutureGlobs().thenApply(result -> {
+            queryCache.put(globType, currentKey, result, generation);
+            return result;
+        });
+    }
+
+    public void close() {
+        query.close();
+    }
+
+    // accessor values of the constraint are read at each execution
+    private List<Object> getKey() {
+        List<Object> currentKey = new ArrayList<>(key);
+        currentKey.add(ConstraintKeyVisitor.key(constraint));
+        return currentKey;
+    }
+}
@@ -0,0 +1,200 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.FieldValues;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
+import org.globsframework.sqlstreams.*;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.exceptions.DbConstraintViolation;
+import org.globsframework.sqlstreams.exceptions.RollbackFailed;
+
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * A type written by this connection is invalidated right away and again at commit/rollback ;
+ * until then get(key) on that type read the db and do not fill the cache (uncommitted data).
+ * The write requests mark their type again at each run, a request can be kept across commits.
+ */
+public class CachedSqlConnection implements SqlConnection {
+    private final SqlConnection sqlConnection;
+    private final GlobCache cache;
+    private final QueryCache queryCache;
+    private final Set<GlobType> writtenTypes = new HashSet<>();
+
+    public CachedSqlConnection(SqlConnection sqlConnection, GlobCache cache, QueryCache queryCache) {
+        this.sqlConnection = sqlConnection;
+        this.cache = cache;
+        this.queryCache = queryCache;
+    }
+
+    public Glob get(Key key) {
+        GlobType globType = key.getGlobType();
+        GlobCache.TypeCache typeCache = cache.get(globType);
+        if (typeCache == null || writtenTypes.contains(globType)) {
+            return read(key);
+        }
+        Glob glob = typeCache.get(key);
+        if (glob == null) {
+            long generation = typeCache.getGeneration();
+            glob = read(key);
+            if (glob != null) {
+                typeCache.put(key, glob, generation);
+            }
+        }
+        return glob;
+    }
+
+    private Glob read(Key key) {
+        GlobList globs = sqlConnection.getQueryBuilder(key.getGlobType(), Constraints.keysIn(Collections.singleton(key)))
+              .selectAll()
+              .getQuery().executeAsGlobs();
+        return globs.isEmpty() ? null : globs.get(0);
+    }
+
+    private void written(GlobType globType) {
+        if (cache.get(globType) != null || queryCache.isCached(globType)) {
+            writtenTypes.add(globType);
+            cache.invalidate(globType);
+            queryCache.invalidate(globType);
+        }
+    }
+
+    private void invalidateWrittenTypes() {
+        for (GlobType globType : writtenTypes) {
+            cache.invalidate(globType);
+            queryCache.invalidate(globType);
+        }
+        writtenTypes.clear();
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType) {
+        return getQueryBuilder(globType, (Constraint) null);
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
+        SelectBuilder selectBuilder = sqlConnection.getQueryBuilder(globType, constraint);
+        if (!queryCache.isCached(globType) || writtenTypes.contains(globType)) {
+            return selectBuilder;
+        }
+        return new CachingSelectBuilder(selectBuilder, globType, constraint, queryCache);
+    }
+
+    public CreateBuilder getCreateBuilder(GlobType globType) {
+        written(globType);
+        return new InvalidatingCreateBuilder(sqlConnection.getCreateBuilder(globType), () -> written(globType));
+    }
+
+    public SelectBuilder getQueryBuilder(GlobType globType, String sqlRequest) {
+        return sqlConnection.getQueryBuilder(globType, sqlRequest);
+    }
+
+    public UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint) {
+        written(globType);
+        return new InvalidatingUpdateBuilder(sqlConnection.getUpdateBuilder(globType, constraint), () -> written(globType));
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType) {
+        written(globType);
+        return new InvalidatingRequest(sqlConnection.getDeleteRequest(globType), () -> written(globType));
+    }
+
+    public SqlRequest getDeleteRequest(GlobType globType, Constraint constraint) {
+        written(globType);
+        return new InvalidatingRequest(sqlConnection.getDeleteRequest(globType, constraint), () -> written(globType));
+    }
+
+    public void deleteByKeys(Collection<Key> keys) {
+        for (Key key : keys) {
+            written(key.getGlobType());
+        }
+        sqlConnection.deleteByKeys(keys);
+    }
+
+    public void updateByKeys(Collection<Key> keys, FieldValues values) {
+        for (Key key : keys) {
+            written(key.getGlobType());
+        }
+        sqlConnection.updateByKeys(keys, values);
+    }
+
+    // only the full globs (no fields given) go through the cache
+    public Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys, Field... fields) {
+        GlobCache.TypeCache typeCache = cache.get(globType);
+        if (typeCache == null || fields.length != 0 || writtenTypes.contains(globType)) {
+            return sqlConnection.getByKeys(globType, keys, fields);
+        }
+        Map<Key, Glob> result = new HashMap<>();
+        List<Key> missing = new ArrayList<>();
+        for (Key key : keys) {
+            Glob glob = typeCache.get(key);
+            if (glob != null) {
+                result.put(key, glob);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = typeCache.getGeneration();
+            for (Map.Entry<Key, Glob> entry : sqlConnection.getByKeys(globType, missing).entrySet()) {
+                typeCache.put(entry.getKey(), entry.getValue(), generation);
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    public void commit() throws RollbackFailed, DbConstraintViolation {
+        try {
+            sqlConnection.commit();
+        } finally {
+            invalidateWrittenTypes();
+        }
+    }
+
+    public void commitAndClose() throws RollbackFailed, DbConstraintViolation {
+        try {
+            sqlConnection.commitAndClose();
+        } finally {
+            invalidateWrittenTypes();
+        }
+    }
+
+    public void rollbackAndClose() {
+        try {
+            sqlConnection.rollbackAndClose();
+        } finally {
+            invalidateWrittenTypes();
+        }
+    }
+
+    public Connection getConnection() {
+        return sqlConnection.getConnection();
+    }
+
+    public void createTable(GlobType... globType) {
+        sqlConnection.createTable(globType);
+    }
+
+    public void emptyTable(GlobType... globType) {
+        for (GlobType type : globType) {
+            written(type);
+        }
+        sqlConnection.emptyTable(globType);
+    }
+
+    public void showDb() {
+        sqlConnection.showDb();
+    }
+
+    public void populate(GlobList all) {
+        for (Glob glob : all) {
+            written(glob.getType());
+        }
+        sqlConnection.populate(all);
+    }
+}
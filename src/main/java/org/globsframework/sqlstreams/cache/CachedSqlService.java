@@ -0,0 +1,60 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.SqlService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SqlService whose connections read the registered types by key through a shared GlobCache
+ * and keep the results of the selects on the types registered with cacheQueries in a shared QueryCache.
+ * The writes must go through these connections for the cache to be invalidated.
+ */
+public class CachedSqlService implements SqlService {
+    private final SqlService sqlService;
+    private final GlobCache cache = new GlobCache();
+    private final QueryCache queryCache = new QueryCache();
+
+    public CachedSqlService(SqlService sqlService) {
+        this.sqlService = sqlService;
+    }
+
+    public CachedSqlService cache(GlobType globType, int maxSize, long ttl, TimeUnit unit) {
+        cache.register(globType, maxSize, ttl, unit);
+        return this;
+    }
+
+    public CachedSqlService cacheQueries(GlobType... globTypes) {
+        for (GlobType globType : globTypes) {
+            queryCache.register(globType);
+        }
+        return this;
+    }
+
+    // total cached rows and max rows of a cached result.
+    public CachedSqlService setQueryCacheLimits(int maxRows, int maxResultRows) {
+        queryCache.setLimits(maxRows, maxResultRows);
+        return this;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public GlobCache getCache() {
+        return cache;
+    }
+
+    public CachedSqlConnection getDb() {
+        return new CachedSqlConnection(sqlService.getDb(), cache, queryCache);
+    }
+
+    public String getTableName(GlobType globType) {
+        return sqlService.getTableName(globType);
+    }
+
+    public String getColumnName(Field field) {
+        return sqlService.getColumnName(field);
+    }
+}
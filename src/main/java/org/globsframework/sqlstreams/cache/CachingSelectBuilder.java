@@ -0,0 +1,176 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
+import org.globsframework.sqlstreams.FetchStrategy;
+import org.globsframework.sqlstreams.SelectBuilder;
+import org.globsframework.sqlstreams.SelectQuery;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.streams.accessors.*;
+import org.globsframework.utils.Ref;
+
+import java.util.*;
+
+// the queries reading through accessors or using startAfter are not cached.
+class CachingSelectBuilder implements SelectBuilder {
+    private final SelectBuilder selectBuilder;
+    private final GlobType globType;
+    private final Constraint constraint;
+    private final QueryCache queryCache;
+    private final Set<Field> fields = new HashSet<>();
+    private final List<Object> orders = new ArrayList<>();
+    private int top = -1;
+    private boolean cacheable = true;
+
+    CachingSelectBuilder(SelectBuilder selectBuilder, GlobType globType, Constraint constraint, QueryCache queryCache) {
+        this.selectBuilder = selectBuilder;
+        this.globType = globType;
+        this.constraint = constraint;
+        this.queryCache = queryCache;
+    }
+
+    public SelectQuery getQuery() {
+        SelectQuery query = selectBuilder.getQuery();
+        if (!cacheable) {
+            return query;
+        }
+        List<Object> key = new ArrayList<>();
+        key.add(globType);
+        key.add(new HashSet<>(fields));
+        key.add(new ArrayList<>(orders));
+        key.add(top);
+        fields.clear();
+        return new CachedSelectQuery(query, globType, key, constraint, queryCache);
+    }
+
+    public SelectQuery getNotAutoCloseQuery() {
+        return selectBuilder.getNotAutoCloseQuery();
+    }
+
+    public SelectBuilder select(Field field) {
+        fields.add(field);
+        selectBuilder.select(field);
+        return this;
+    }
+
+    public SelectBuilder selectAll() {
+        fields.addAll(Arrays.asList(globType.getFields()));
+        selectBuilder.selectAll();
+        return this;
+    }
+
+    public SelectBuilder select(IntegerField field, Ref<IntegerAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder select(LongField field, Ref<LongAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder select(BooleanField field, Ref<BooleanAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder select(StringField field, Ref<StringAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder select(DoubleField field, Ref<DoubleAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder select(BlobField field, Ref<BlobAccessor> accessor) {
+        cacheable = false;
+        selectBuilder.select(field, accessor);
+        return this;
+    }
+
+    public SelectBuilder orderAsc(Field field) {
+        orders.add(field);
+        orders.add(true);
+        selectBuilder.orderAsc(field);
+        return this;
+    }
+
+    public SelectBuilder orderDesc(Field field) {
+        orders.add(field);
+        orders.add(false);
+        selectBuilder.orderDesc(field);
+        return this;
+    }
+
+    public SelectBuilder top(int n) {
+        top = n;
+        selectBuilder.top(n);
+        return this;
+    }
+
+    public SelectBuilder fetchSize(int n) {
+        selectBuilder.fetchSize(n);
+        return this;
+    }
+
+    public SelectBuilder fetchStrategy(FetchStrategy strategy) {
+        selectBuilder.fetchStrategy(strategy);
+        return this;
+    }
+
+    public SelectBuilder startAfter(FieldValues lastValues) {
+        cacheable = false;
+        selectBuilder.startAfter(lastValues);
+        return this;
+    }
+
+    public SelectBuilder withKeys() {
+        fields.addAll(Arrays.asList(globType.getKeyFields()));
+        selectBuilder.withKeys();
+        return this;
+    }
+
+    public IntegerAccessor retrieve(IntegerField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public LongAccessor retrieve(LongField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public StringAccessor retrieve(StringField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public BooleanAccessor retrieve(BooleanField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public DoubleAccessor retrieve(DoubleField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public BlobAccessor retrieve(BlobField field) {
+        cacheable = false;
+        return selectBuilder.retrieve(field);
+    }
+
+    public Accessor retrieveUnTyped(Field field) {
+        cacheable = false;
+        return selectBuilder.retrieveUnTyped(field);
+    }
+}
@@ -0,0 +1,129 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.ConstraintVisitor;
+import org.globsframework.sqlstreams.constraints.OperandVisitor;
+import org.globsframework.sqlstreams.constraints.impl.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Canonical form of a constraint, values included (accessor values are read now) : two constraints
+ * selecting the same rows the same way give equal keys. Nested AND/OR are flattened and unordered.
+ */
+public class ConstraintKeyVisitor implements ConstraintVisitor, OperandVisitor {
+    private final List<Object> key;
+
+    public ConstraintKeyVisitor(List<Object> key) {
+        this.key = key;
+    }
+
+    public static List<Object> key(Constraint constraint) {
+        List<Object> key = new ArrayList<>();
+        if (constraint != null) {
+            constraint.visit(new ConstraintKeyVisitor(key));
+        }
+        return key;
+    }
+
+    public void visitEqual(EqualConstraint constraint) {
+        visitBinary(constraint, "=");
+    }
+
+    public void visitNotEqual(NotEqualConstraint constraint) {
+        visitBinary(constraint, "<>");
+    }
+
+    public void visitAnd(AndConstraint constraint) {
+        key.add("AND");
+        key.add(flatten(constraint, AndConstraint.class, new HashSet<>()));
+    }
+
+    public void visitOr(OrConstraint constraint) {
+        key.add("OR");
+        key.add(flatten(constraint, OrConstraint.class, new HashSet<>()));
+    }
+
+    public void visitLessThan(LessThanConstraint constraint) {
+        visitBinary(constraint, "<=");
+    }
+
+    public void visitBiggerThan(BiggerThanConstraint constraint) {
+        visitBinary(constraint, ">=");
+    }
+
+    public void visitStrictlyBiggerThan(StrictlyBiggerThanConstraint constraint) {
+        visitBinary(constraint, ">");
+    }
+
+    public void visitStrictlyLesserThan(StrictlyLesserThanConstraint constraint) {
+        visitBinary(constraint, "<");
+    }
+
+    public void visitIn(InConstraint constraint) {
+        key.add("IN");
+        key.add(constraint.getField());
+        key.add(values(constraint.getValues()));
+    }
+
+    public void visitIsOrNotNull(NullOrNotConstraint constraint) {
+        key.add(constraint.checkNull() ? "IS NULL" : "IS NOT NULL");
+        key.add(constraint.getField());
+    }
+
+    public void visitNotIn(NotInConstraint constraint) {
+        key.add("NOT IN");
+        key.add(constraint.getField());
+        key.add(values(constraint.getValues()));
+    }
+
+    public void visitContains(Field field, String value, boolean contains) {
+        key.add(contains ? "LIKE" : "NOT LIKE");
+        key.add(field);
+        key.add(value);
+    }
+
+    public void visitValueOperand(ValueOperand value) {
+        key.add(value(value.getValue()));
+    }
+
+    public void visitAccessorOperand(AccessorOperand accessorOperand) {
+        key.add(value(accessorOperand.getAccessor().getObjectValue()));
+    }
+
+    public void visitFieldOperand(Field field) {
+        key.add(field);
+    }
+
+    private void visitBinary(BinaryOperandConstraint constraint, String operator) {
+        key.add(operator);
+        constraint.getLeftOperand().visitOperand(this);
+        constraint.getRightOperand().visitOperand(this);
+    }
+
+    private static Set<Object> flatten(Constraint constraint, Class<? extends BinaryConstraint> type, Set<Object> keys) {
+        if (type.isInstance(constraint)) {
+            BinaryConstraint binaryConstraint = (BinaryConstraint) constraint;
+            flatten(binaryConstraint.getLeftConstraint(), type, keys);
+            flatten(binaryConstraint.getRightConstraint(), type, keys);
+        } else {
+            keys.add(key(constraint));
+        }
+        return keys;
+    }
+
+    private static Set<Object> values(Collection<?> values) {
+        Set<Object> keys = new HashSet<>();
+        for (Object value : values) {
+            keys.add(value(value));
+        }
+        return keys;
+    }
+
+    // arrays (blob) are compared by content
+    private static Object value(Object value) {
+        return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+    }
+}
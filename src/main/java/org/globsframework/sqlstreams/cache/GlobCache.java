@@ -0,0 +1,156 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.Glob;
+import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
+import org.globsframework.model.MutableGlob;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Globs by key for the registered types, LRU on maxSize with an expiration of ttl after the load.
+ * Each invalidation of a type increase its generation : a value read from the db before an invalidation is not stored.
+ * The globs are copied when stored and when returned : a caller can't change the cached values.
+ */
+public class GlobCache {
+    private final Map<GlobType, TypeCache> caches = new ConcurrentHashMap<>();
+
+    public void register(GlobType globType, int maxSize, long ttl, TimeUnit unit) {
+        caches.put(globType, new TypeCache(maxSize, unit.toNanos(ttl)));
+    }
+
+    public TypeCache get(GlobType globType) {
+        return caches.get(globType);
+    }
+
+    public void invalidate(GlobType globType) {
+        TypeCache typeCache = caches.get(globType);
+        if (typeCache != null) {
+            typeCache.invalidateAll();
+        }
+    }
+
+    public void invalidate(Key key) {
+        TypeCache typeCache = caches.get(key.getGlobType());
+        if (typeCache != null) {
+            typeCache.invalidate(key);
+        }
+    }
+
+    static Glob duplicate(Glob glob) {
+        MutableGlob copy = glob.getType().instantiate();
+        for (Field field : glob.getType().getFields()) {
+            Object value = glob.getValue(field);
+            copy.setValue(field, value instanceof byte[] ? ((byte[]) value).clone() : value);
+        }
+        return copy;
+    }
+
+    static GlobList duplicate(GlobList globs) {
+        GlobList copy = new GlobList();
+        for (Glob glob : globs) {
+            copy.add(duplicate(glob));
+        }
+        return copy;
+    }
+
+    public static class TypeCache {
+        private final int maxSize;
+        private final long ttlNanos;
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        TypeCache(int maxSize, long ttlNanos) {
+            this.maxSize = Math.max(1, maxSize);
+            this.ttlNanos = ttlNanos;
+        }
+
+        public Glob get(Key key) {
+            synchronized (entries) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    if (System.nanoTime() - entry.loadTime < ttlNanos) {
+                        hits.incrementAndGet();
+                        return duplicate(entry.glob);
+                    }
+                    entries.remove(key);
+                    evictions.incrementAndGet();
+                }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        // generation must be read before the db read.
+        public long getGeneration() {
+            return generation.get();
+        }
+
+        public void put(Key key, Glob glob, long readGeneration) {
+            synchronized (entries) {
+                if (generation.get() != readGeneration) {
+                    return;
+                }
+                entries.put(key, new Entry(duplicate(glob), System.nanoTime()));
+                if (entries.size() > maxSize) {
+                    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+                    iterator.next();
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        public void invalidate(Key key) {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.remove(key);
+            }
+        }
+
+        public void invalidateAll() {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.clear();
+            }
+        }
+
+        public int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        public long getHitCount() {
+            return hits.get();
+        }
+
+        public long getMissCount() {
+            return misses.get();
+        }
+
+        public long getEvictionCount() {
+            return evictions.get();
+        }
+    }
+
+    private static class Entry {
+        private final Glob glob;
+        private final long loadTime;
+
+        Entry(Glob glob, long loadTime) {
+            this.glob = glob;
+            this.loadTime = loadTime;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.fields.*;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.CreateBuilder;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.streams.accessors.*;
+
+class InvalidatingCreateBuilder implements CreateBuilder {
+    private final CreateBuilder createBuilder;
+    private final Runnable written;
+
+    InvalidatingCreateBuilder(CreateBuilder createBuilder, Runnable written) {
+        this.createBuilder = createBuilder;
+        this.written = written;
+    }
+
+    public CreateBuilder set(IntegerField field, Integer value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(BlobField field, byte[] value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(StringField field, String value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(LongField field, Long value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(DoubleField field, Double value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(BooleanField field, Boolean value) {
+        createBuilder.set(field, value);
+        return this;
+    }
+
+    public CreateBuilder set(IntegerField field, IntegerAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder set(LongField field, LongAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder set(StringField field, StringAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder set(DoubleField field, DoubleAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder set(BooleanField field, BooleanAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder set(BlobField field, BlobAccessor accessor) {
+        createBuilder.set(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder setObject(Field field, Accessor accessor) {
+        createBuilder.setObject(field, accessor);
+        return this;
+    }
+
+    public CreateBuilder setObject(Field field, Object value) {
+        createBuilder.setObject(field, value);
+        return this;
+    }
+
+    public SqlRequest getRequest() {
+        return new InvalidatingRequest(createBuilder.getRequest(), written);
+    }
+
+    public BulkDbRequest getBulkRequest() {
+        return new InvalidatingRequest(createBuilder.getBulkRequest(), written);
+    }
+}
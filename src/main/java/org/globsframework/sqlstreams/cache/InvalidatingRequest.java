@@ -0,0 +1,31 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.exceptions.SqlException;
+
+// the type is marked as written at each run : a request kept after a commit still invalidate the caches.
+class InvalidatingRequest implements BulkDbRequest {
+    private final SqlRequest request;
+    private final Runnable written;
+
+    InvalidatingRequest(SqlRequest request, Runnable written) {
+        this.request = request;
+        this.written = written;
+    }
+
+    public void run() throws SqlException {
+        written.run();
+        request.run();
+    }
+
+    public void flush() {
+        if (request instanceof BulkDbRequest) {
+            ((BulkDbRequest) request).flush();
+        }
+    }
+
+    public void close() {
+        request.close();
+    }
+}
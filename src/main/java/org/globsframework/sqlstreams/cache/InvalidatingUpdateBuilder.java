@@ -0,0 +1,96 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.fields.*;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.UpdateBuilder;
+import org.globsframework.streams.accessors.*;
+
+class InvalidatingUpdateBuilder implements UpdateBuilder {
+    private final UpdateBuilder updateBuilder;
+    private final Runnable written;
+
+    InvalidatingUpdateBuilder(UpdateBuilder updateBuilder, Runnable written) {
+        this.updateBuilder = updateBuilder;
+        this.written = written;
+    }
+
+    public UpdateBuilder updateUntyped(Field field, Object value) {
+        updateBuilder.updateUntyped(field, value);
+        return this;
+    }
+
+    public UpdateBuilder updateUntyped(Field field, Accessor accessor) {
+        updateBuilder.updateUntyped(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(IntegerField field, IntegerAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(IntegerField field, Integer value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(LongField field, LongAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(LongField field, Long value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(DoubleField field, DoubleAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(DoubleField field, Double value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(StringField field, StringAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(StringField field, String value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(BooleanField field, BooleanAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public UpdateBuilder update(BooleanField field, Boolean value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(BlobField field, byte[] value) {
+        updateBuilder.update(field, value);
+        return this;
+    }
+
+    public UpdateBuilder update(BlobField field, BlobAccessor accessor) {
+        updateBuilder.update(field, accessor);
+        return this;
+    }
+
+    public SqlRequest getRequest() {
+        return new InvalidatingRequest(updateBuilder.getRequest(), written);
+    }
+
+    public BulkDbRequest getBulkRequest() {
+        return new InvalidatingRequest(updateBuilder.getBulkRequest(), written);
+    }
+}
@@ -0,0 +1,126 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.GlobList;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of the selects on the registered types, LRU bounded on the total number of cached rows ;
+ * a result of more than maxResultRows is not kept. All the results of a type are dropped when the type is written.
+ * As in GlobCache, the globs are copied when stored and when returned.
+ */
+public class QueryCache {
+    public static final int DEFAULT_MAX_ROWS = 100000;
+    public static final int DEFAULT_MAX_RESULT_ROWS = 10000;
+    private final Set<GlobType> globTypes = ConcurrentHashMap.newKeySet();
+    private final Map<GlobType, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxRows = DEFAULT_MAX_ROWS;
+    private volatile int maxResultRows = DEFAULT_MAX_RESULT_ROWS;
+    private int rows;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public void register(GlobType globType) {
+        globTypes.add(globType);
+    }
+
+    public boolean isCached(GlobType globType) {
+        return globTypes.contains(globType);
+    }
+
+    public void setLimits(int maxRows, int maxResultRows) {
+        this.maxRows = maxRows;
+        this.maxResultRows = Math.min(maxRows, maxResultRows);
+    }
+
+    public GlobList get(List<Object> key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return GlobCache.duplicate(entry.globs);
+    }
+
+    // generation must be read before the db read.
+    public long getGeneration(GlobType globType) {
+        return generations.computeIfAbsent(globType, type -> new AtomicLong()).get();
+    }
+
+    public void put(GlobType globType, List<Object> key, GlobList globs, long readGeneration) {
+        if (globs.size() > maxResultRows) {
+            return;
+        }
+        synchronized (entries) {
+            if (getGeneration(globType) != readGeneration) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(globType, GlobCache.duplicate(globs)));
+            rows += globs.size() - (previous == null ? 0 : previous.globs.size());
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (rows > maxRows && iterator.hasNext()) {
+                rows -= iterator.next().globs.size();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(GlobType globType) {
+        if (!globTypes.contains(globType)) {
+            return;
+        }
+        synchronized (entries) {
+            generations.computeIfAbsent(globType, type -> new AtomicLong()).incrementAndGet();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.globType == globType) {
+                    rows -= entry.globs.size();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int getRowCount() {
+        synchronized (entries) {
+            return rows;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static class Entry {
+        private final GlobType globType;
+        private final GlobList globs;
+
+        Entry(GlobType globType, GlobList globs) {
+            this.globType = globType;
+            this.globs = globs;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package org.globsframework.sqlstreams.constraints;
 
 import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
 import org.globsframework.model.FieldValues;
+import org.globsframework.model.Key;
 import org.globsframework.sqlstreams.constraints.impl.*;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.exceptions.UnexpectedApplicationState;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class Constraints {
     private Constraints() {
@@ -138,6 +144,10 @@ public class Constraints {
         return new StrictlyLesserThanConstraint(new FieldOperand(field), new ValueOperand(field, value));
     }
 
+    public static Constraint strictlyLess(Field field, Object value) {
+        return new StrictlyLesserThanConstraint(new FieldOperand(field), new ValueOperand(field, value));
+    }
+
     public static Constraint strictlyLess(Field field, Accessor accessor) {
         return new StrictlyLesserThanConstraint(new FieldOperand(field), new AccessorOperand(field, accessor));
     }
@@ -199,6 +209,83 @@ public class Constraints {
         return new EqualConstraint(new FieldOperand(field), new ValueOperand(field, value));
     }
 
+    // key IN (...) for a single key field, (k1 = ? and k2 = ?) or ... for composite keys.
+    public static Constraint keysIn(Collection<Key> keys) {
+        if (keys.isEmpty()) {
+            throw new UnexpectedApplicationState("keysIn expect at least one key");
+        }
+        GlobType globType = keys.iterator().next().getGlobType();
+        Field[] keyFields = globType.getKeyFields();
+        if (keyFields.length == 1) {
+            Set<Object> values = new LinkedHashSet<>();
+            for (Key key : keys) {
+                checkType(globType, key);
+                values.add(key.getValue(keyFields[0]));
+            }
+            return in(keyFields[0], values);
+        }
+        Constraint constraint = null;
+        for (Key key : keys) {
+            checkType(globType, key);
+            Constraint keyConstraint = null;
+            for (Field field : keyFields) {
+                keyConstraint = and(keyConstraint, equalsObject(field, key.getValue(field)));
+            }
+            constraint = or(constraint, keyConstraint);
+        }
+        return constraint;
+    }
+
+    private static void checkType(GlobType globType, Key key) {
+        if (key.getGlobType() != globType) {
+            throw new UnexpectedApplicationState("Keys of different types : " + globType.getName() + " and " + key.getGlobType().getName());
+        }
+    }
+
+    /**
+     * Keyset (seek) constraint : rows strictly after values in the order given by fields/ascending.
+     * Expanded as (f1 > v1) or (f1 = v1 and f2 > v2) ... with a leading f1 >= v1 so an index on f1 can be used.
+     * Values are read from lastValues at each execution; they must not be null.
+     */
+    public static Constraint startAfter(Field[] fields, boolean[] ascending, FieldValues lastValues) {
+        if (fields.length == 0 || fields.length != ascending.length) {
+            throw new UnexpectedApplicationState("startAfter expect one direction per field");
+        }
+        Constraint after = null;
+        for (int i = fields.length - 1; i >= 0; i--) {
+            Field field = fields[i];
+            Accessor value = new FieldValuesAccessor(lastValues, field);
+            Constraint strictly = ascending[i] ? strictlyBigger(field, value) : strictlyLess(field, value);
+            after = after == null ? strictly : or(strictly, and(equalsObject(field, value), after));
+        }
+        if (fields.length == 1) {
+            return after;
+        }
+        Accessor first = new FieldValuesAccessor(lastValues, fields[0]);
+        return and(ascending[0] ? greater(fields[0], first) : less(fields[0], first), after);
+    }
+
+    /**
+     * startAfter on the orders of a select : the key fields not ordered yet are added ascending to orders
+     * so that the order is total, then the constraint is built on all the orders.
+     */
+    public static <T> Constraint startAfter(GlobType globType, List<T> orders, Function<T, Field> orderField,
+                                            Predicate<T> isAscending, Function<Field, T> ascendingOrder,
+                                            FieldValues lastValues) {
+        for (Field field : globType.getKeyFields()) {
+            if (orders.stream().noneMatch(order -> orderField.apply(order) == field)) {
+                orders.add(ascendingOrder.apply(field));
+            }
+        }
+        Field[] fields = new Field[orders.size()];
+        boolean[] ascending = new boolean[orders.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = orderField.apply(orders.get(i));
+            ascending[i] = isAscending.test(orders.get(i));
+        }
+        return startAfter(fields, ascending, lastValues);
+    }
+
     private static class ConstraintsFunctor implements FieldValues.Functor {
         private Constraint constraint = null;
         private final FieldValues key;
@@ -220,6 +307,20 @@ public class Constraints {
         }
     }
 
+    private static class FieldValuesAccessor implements Accessor {
+        private final FieldValues values;
+        private final Field field;
+
+        public FieldValuesAccessor(FieldValues values, Field field) {
+            this.values = values;
+            this.field = field;
+        }
+
+        public Object getObjectValue() {
+            return values.getValue(field);
+        }
+    }
+
     private static class KeyElementAccessor implements Accessor {
         private final KeyConstraint keyAccessor;
         private final Field field;
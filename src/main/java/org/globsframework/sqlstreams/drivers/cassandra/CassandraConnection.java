@@ -5,7 +5,10 @@ import com.datastax.driver.core.Row;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
+import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
 import org.globsframework.sqlstreams.*;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.exceptions.DbConstraintViolation;
@@ -14,6 +17,7 @@ import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.Ref;
 
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -47,6 +51,18 @@ public class CassandraConnection implements SqlConnection {
         return null;
     }
 
+    public void deleteByKeys(Collection<Key> keys) {
+        throw new RuntimeException("Not Implemented");
+    }
+
+    public Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys, Field... fields) {
+        throw new RuntimeException("Not Implemented");
+    }
+
+    public void updateByKeys(Collection<Key> keys, FieldValues values) {
+        throw new RuntimeException("Not Implemented");
+    }
+
     public void commit() throws RollbackFailed, DbConstraintViolation {
 
     }
@@ -223,6 +239,18 @@ public class CassandraConnection implements SqlConnection {
             return null;
         }
 
+        public SelectBuilder fetchSize(int n) {
+            return null;
+        }
+
+        public SelectBuilder fetchStrategy(FetchStrategy strategy) {
+            return null;
+        }
+
+        public SelectBuilder startAfter(FieldValues lastValues) {
+            return null;
+        }
+
         public SelectBuilder withKeys() {
             return null;
         }
@@ -5,6 +5,7 @@ import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
 import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlFieldCreationVisitor;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.hsqldb.jdbc.jdbcBlob;
 import org.hsqldb.util.DatabaseManagerSwing;
@@ -34,6 +35,15 @@ public class HsqlConnection extends JdbcConnection {
         };
     }
 
+    // EXPLAIN PLAN FOR only accept a select, without parameter values.
+    protected String getExplainSql(QueryListener.Kind kind, String sql) {
+        return kind == QueryListener.Kind.SELECT ? "EXPLAIN PLAN FOR " + sql : null;
+    }
+
+    protected boolean isExplainBound() {
+        return false;
+    }
+
     public void showDb() {
         Thread thread = new Thread() {
 
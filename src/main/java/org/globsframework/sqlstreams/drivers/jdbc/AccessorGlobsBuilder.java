@@ -2,23 +2,32 @@ package org.globsframework.sqlstreams.drivers.jdbc;
 
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.fields.*;
 import org.globsframework.model.Glob;
 import org.globsframework.model.MutableGlob;
 import org.globsframework.streams.GlobStream;
-import org.globsframework.streams.accessors.Accessor;
-import org.globsframework.utils.collections.MultiMap;
-import org.globsframework.utils.collections.Pair;
+import org.globsframework.streams.accessors.*;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Build the globs of the current row of a GlobStream.
+ * The field to accessor copy is resolved once per type; with a single type, getGlob() creates one glob per row
+ * without intermediate list.
+ */
 public class AccessorGlobsBuilder {
-    private MultiMap<GlobType, Pair<Field, Accessor>> accessors = new MultiMap<GlobType, Pair<Field, Accessor>>();
+    private final TypeMaterializer[] materializers;
 
     public AccessorGlobsBuilder(GlobStream globStream) {
+        Map<GlobType, List<Copier>> copiers = new LinkedHashMap<>();
         for (Field field : globStream.getFields()) {
-            accessors.put(field.getGlobType(), new Pair<Field, Accessor>(field, globStream.getAccessor(field)));
+            copiers.computeIfAbsent(field.getGlobType(), type -> new ArrayList<>())
+                  .add(createCopier(field, globStream.getAccessor(field)));
+        }
+        materializers = new TypeMaterializer[copiers.size()];
+        int i = 0;
+        for (Map.Entry<GlobType, List<Copier>> entry : copiers.entrySet()) {
+            materializers[i++] = new TypeMaterializer(entry.getKey(), entry.getValue().toArray(new Copier[0]));
         }
     }
 
@@ -26,15 +35,111 @@ public class AccessorGlobsBuilder {
         return new AccessorGlobsBuilder(globStream);
     }
 
+    public boolean isSingleType() {
+        return materializers.length == 1;
+    }
+
+    public Glob getGlob() {
+        if (materializers.length != 1) {
+            throw new RuntimeException("Stream contains " + materializers.length + " types.");
+        }
+        return materializers[0].create();
+    }
+
+    public void addGlobs(Collection<Glob> globs) {
+        for (TypeMaterializer materializer : materializers) {
+            globs.add(materializer.create());
+        }
+    }
+
     public List<Glob> getGlobs() {
-        List globs = new ArrayList();
-        for (Map.Entry<GlobType, List<Pair<Field, Accessor>>> entry : accessors.entries()) {
-            MutableGlob defaultGlob = entry.getKey().instantiate();
-            for (Pair<Field, Accessor> pair : entry.getValue()) {
-                defaultGlob.setValue(pair.getFirst(), pair.getSecond().getObjectValue());
-            }
-            globs.add(defaultGlob);
+        if (materializers.length == 1) {
+            return Collections.singletonList(materializers[0].create());
         }
+        List<Glob> globs = new ArrayList<>(materializers.length);
+        addGlobs(globs);
         return globs;
     }
+
+    interface Copier {
+        void copy(MutableGlob glob);
+    }
+
+    private static class TypeMaterializer {
+        private final GlobType globType;
+        private final Copier[] copiers;
+
+        TypeMaterializer(GlobType globType, Copier[] copiers) {
+            this.globType = globType;
+            this.copiers = copiers;
+        }
+
+        MutableGlob create() {
+            MutableGlob glob = globType.instantiate();
+            for (Copier copier : copiers) {
+                copier.copy(glob);
+            }
+            return glob;
+        }
+    }
+
+    private static Copier createCopier(Field field, Accessor accessor) {
+        CopierFieldVisitor visitor = new CopierFieldVisitor(accessor);
+        field.safeVisit(visitor);
+        if (visitor.copier == null) {
+            return glob -> glob.setValue(field, accessor.getObjectValue());
+        }
+        return visitor.copier;
+    }
+
+    private static class CopierFieldVisitor implements FieldVisitor {
+        private final Accessor accessor;
+        private Copier copier;
+
+        CopierFieldVisitor(Accessor accessor) {
+            this.accessor = accessor;
+        }
+
+        public void visitInteger(IntegerField field) throws Exception {
+            if (accessor instanceof IntegerAccessor) {
+                IntegerAccessor integerAccessor = (IntegerAccessor) accessor;
+                copier = glob -> glob.set(field, integerAccessor.getInteger());
+            }
+        }
+
+        public void visitDouble(DoubleField field) throws Exception {
+            if (accessor instanceof DoubleAccessor) {
+                DoubleAccessor doubleAccessor = (DoubleAccessor) accessor;
+                copier = glob -> glob.set(field, doubleAccessor.getDouble());
+            }
+        }
+
+        public void visitString(StringField field) throws Exception {
+            if (accessor instanceof StringAccessor) {
+                StringAccessor stringAccessor = (StringAccessor) accessor;
+                copier = glob -> glob.set(field, stringAccessor.getString());
+            }
+        }
+
+        public void visitBoolean(BooleanField field) throws Exception {
+            if (accessor instanceof BooleanAccessor) {
+                BooleanAccessor booleanAccessor = (BooleanAccessor) accessor;
+                copier = glob -> glob.set(field, booleanAccessor.getBoolean());
+            }
+        }
+
+        public void visitBlob(BlobField field) throws Exception {
+            if (accessor instanceof BlobAccessor) {
+                BlobAccessor blobAccessor = (BlobAccessor) accessor;
+                copier = glob -> glob.set(field, blobAccessor.getValue());
+            }
+        }
+
+        public void visitLong(LongField field) throws Exception {
+            if (accessor instanceof LongAccessor) {
+                LongAccessor longAccessor = (LongAccessor) accessor;
+                copier = glob -> glob.set(field, longAccessor.getLong());
+            }
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import java.sql.*;
+
+/**
+ * Read a column as a primitive; the caller check resultSet.wasNull() when the value is 0.
+ * Resolved once per column from the ResultSetMetaData.
+ */
+public abstract class ColumnReader {
+    public static final ColumnReader NUMERIC = new NumericReader();
+    public static final ColumnReader DATE = new DateReader();
+    public static final ColumnReader TIMESTAMP = new TimestampReader();
+
+    public abstract int readInt(ResultSet resultSet, int index) throws SQLException;
+
+    public abstract long readLong(ResultSet resultSet, int index) throws SQLException;
+
+    public abstract double readDouble(ResultSet resultSet, int index) throws SQLException;
+
+    // index 0 is unused to keep the jdbc column index.
+    public static ColumnReader[] resolve(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        ColumnReader[] readers = new ColumnReader[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            readers[i] = get(metaData.getColumnType(i));
+        }
+        return readers;
+    }
+
+    public static ColumnReader get(int sqlType) {
+        switch (sqlType) {
+            case Types.DATE:
+                return DATE;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            default:
+                return NUMERIC;
+        }
+    }
+
+    // a driver can declare an other sql type for a date column : on a conversion error the value class decides.
+    private static class NumericReader extends ColumnReader {
+        public int readInt(ResultSet resultSet, int index) throws SQLException {
+            try {
+                return resultSet.getInt(index);
+            } catch (SQLException e) {
+                Object value = resultSet.getObject(index);
+                if (value instanceof Timestamp) {
+                    return TIMESTAMP.readInt(resultSet, index);
+                }
+                return Math.toIntExact(fromObject(value, e));
+            }
+        }
+
+        public long readLong(ResultSet resultSet, int index) throws SQLException {
+            try {
+                return resultSet.getLong(index);
+            } catch (SQLException e) {
+                Object value = resultSet.getObject(index);
+                if (value instanceof Timestamp) {
+                    return TIMESTAMP.readLong(resultSet, index);
+                }
+                return fromObject(value, e);
+            }
+        }
+
+        public double readDouble(ResultSet resultSet, int index) throws SQLException {
+            try {
+                return resultSet.getDouble(index);
+            } catch (SQLException e) {
+                Object value = resultSet.getObject(index);
+                if (value instanceof Number) {
+                    return ((Number) value).doubleValue();
+                }
+                return readLong(resultSet, index);
+            }
+        }
+
+        private static long fromObject(Object value, SQLException e) throws SQLException {
+            if (value == null) {
+                return 0;
+            }
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof Date) {
+                return ((Date) value).toLocalDate().toEpochDay();
+            }
+            throw e;
+        }
+    }
+
+    // epoch day
+    private static class DateReader extends ColumnReader {
+        public int readInt(ResultSet resultSet, int index) throws SQLException {
+            return Math.toIntExact(readLong(resultSet, index));
+        }
+
+        public long readLong(ResultSet resultSet, int index) throws SQLException {
+            Date date = resultSet.getDate(index);
+            return date == null ? 0 : date.toLocalDate().toEpochDay();
+        }
+
+        public double readDouble(ResultSet resultSet, int index) throws SQLException {
+            return readLong(resultSet, index);
+        }
+    }
+
+    // epoch day as int, epoch milli as long
+    private static class TimestampReader extends ColumnReader {
+        public int readInt(ResultSet resultSet, int index) throws SQLException {
+            Timestamp timestamp = resultSet.getTimestamp(index);
+            return timestamp == null ? 0 : Math.toIntExact(timestamp.toLocalDateTime().toLocalDate().toEpochDay());
+        }
+
+        public long readLong(ResultSet resultSet, int index) throws SQLException {
+            Timestamp timestamp = resultSet.getTimestamp(index);
+            return timestamp == null ? 0 : timestamp.getTime();
+        }
+
+        public double readDouble(ResultSet resultSet, int index) throws SQLException {
+            return readLong(resultSet, index);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.SqlService;
+import org.globsframework.sqlstreams.accessors.SqlAccessor;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.ConstraintShapeVisitor;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.WhereClauseConstraintVisitor;
+import org.globsframework.sqlstreams.drivers.jdbc.request.SqlQueryBuilder;
+import org.globsframework.sqlstreams.utils.StringPrettyWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Sql text and column layout of a select; independent of the bound values so it can be shared
+ * by all the queries with the same shape.
+ */
+public class CompiledSelect {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledSelect.class);
+    private final String sql;
+    private volatile Field[] columns;
+    private volatile ColumnReader[] readers;
+
+    private CompiledSelect(String sql, Field[] columns) {
+        this.sql = sql;
+        this.columns = columns;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public static List<Object> key(Set<Field> fields, Constraint constraint, List<SqlQueryBuilder.Order> orders,
+                                   int top, Set<Field> distinct, String externalRequest) {
+        List<Object> key = new ArrayList<>();
+        key.add(new HashSet<>(fields));
+        if (externalRequest != null) {
+            key.add(externalRequest);
+            return key;
+        }
+        key.add(new HashSet<>(distinct));
+        key.add(top);
+        for (SqlQueryBuilder.Order order : orders) {
+            key.add(order.field);
+            key.add(order.asc);
+        }
+        if (constraint != null) {
+            constraint.visit(new ConstraintShapeVisitor(key));
+        }
+        return key;
+    }
+
+    public static CompiledSelect external(String externalRequest) {
+        return new CompiledSelect(externalRequest, null);
+    }
+
+    public static CompiledSelect compile(Set<Field> fields, Constraint constraint, SqlService sqlService,
+                                         List<SqlQueryBuilder.Order> orders, int top, Set<Field> distinct) {
+        Set<GlobType> globTypes = new HashSet<>();
+        Field[] columns = fields.toArray(new Field[0]);
+        StringPrettyWriter prettyWriter = new StringPrettyWriter();
+        prettyWriter.append("select ");
+        for (int i = 0; i < columns.length; i++) {
+            Field field = columns[i];
+            GlobType globType = field.getGlobType();
+            globTypes.add(globType);
+            if (distinct.contains(field)) {
+                prettyWriter.append(" DISTINCT ");
+            }
+            prettyWriter.append(sqlService.getTableName(globType))
+                  .append(".")
+                  .append(sqlService.getColumnName(field))
+                  .appendIf(", ", i < columns.length - 1);
+        }
+        StringPrettyWriter where = null;
+        if (constraint != null) {
+            where = new StringPrettyWriter();
+            where.append(" WHERE ");
+            constraint.visit(new WhereClauseConstraintVisitor(where, sqlService, globTypes));
+        }
+
+        prettyWriter.append(" from ");
+        for (Iterator<GlobType> it = globTypes.iterator(); it.hasNext(); ) {
+            prettyWriter.append(sqlService.getTableName(it.next()))
+                  .appendIf(", ", it.hasNext());
+        }
+        if (where != null) {
+            prettyWriter.append(where.toString());
+        }
+
+        if (!orders.isEmpty()) {
+            prettyWriter.append(" ORDER BY ");
+            for (SqlQueryBuilder.Order order : orders) {
+                prettyWriter.append(sqlService.getColumnName(order.field));
+                if (order.asc) {
+                    prettyWriter.append(" ASC");
+                } else {
+                    prettyWriter.append(" DESC");
+                }
+                prettyWriter.append(", ");
+            }
+            prettyWriter.removeLast().removeLast();
+        }
+        if (top != -1) {
+            prettyWriter.append(" LIMIT " + top);
+        }
+        return new CompiledSelect(prettyWriter.toString(), columns);
+    }
+
+    public boolean isResolved() {
+        return columns != null;
+    }
+
+    public void resolve(ResultSetMetaData metaData, Set<Field> fields, SqlService sqlService) {
+        try {
+            int columnCount = metaData.getColumnCount();
+            Field[] resolved = new Field[columnCount];
+            for (int i = 1; i <= columnCount; i++) {
+                String columnName = metaData.getColumnName(i);
+                for (Field field : fields) {
+                    if (sqlService.getColumnName(field).equals(columnName)) {
+                        resolved[i - 1] = field;
+                        break;
+                    }
+                }
+                if (resolved[i - 1] == null) {
+                    LOGGER.warn("column " + columnName + " not found in type got " + fields);
+                }
+            }
+            columns = resolved;
+        } catch (SQLException e) {
+            String msg = "Fail to analyse metadata of " + sql;
+            LOGGER.error(msg, e);
+            throw new RuntimeException(msg, e);
+        }
+    }
+
+    public ColumnReader[] getReaders(ResultSet resultSet) throws SQLException {
+        ColumnReader[] readers = this.readers;
+        if (readers == null) {
+            readers = ColumnReader.resolve(resultSet.getMetaData());
+            this.readers = readers;
+        }
+        return readers;
+    }
+
+    public void updateIndex(Map<Field, SqlAccessor> fieldToAccessorHolder) {
+        Field[] columns = this.columns;
+        for (int i = 0; i < columns.length; i++) {
+            Field field = columns[i];
+            if (field != null) {
+                SqlAccessor accessor = fieldToAccessorHolder.get(field);
+                if (accessor != null) {
+                    accessor.setIndex(i + 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled selects keyed on the query shape (see CompiledSelect.key).
+ * A size of 0 disables the cache.
+ */
+public class CompiledSelectCache {
+    public static final int DEFAULT_SIZE = 256;
+    private int maxSize;
+    private final LinkedHashMap<List<Object>, CompiledSelect> compiled =
+          new LinkedHashMap<List<Object>, CompiledSelect>(16, 0.75f, true) {
+              protected boolean removeEldestEntry(Map.Entry<List<Object>, CompiledSelect> eldest) {
+                  return size() > maxSize;
+              }
+          };
+
+    public CompiledSelectCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized public CompiledSelect get(List<Object> key) {
+        return compiled.get(key);
+    }
+
+    synchronized public void put(List<Object> key, CompiledSelect compiledSelect) {
+        if (maxSize > 0) {
+            compiled.put(key, compiledSelect);
+        }
+    }
+
+    synchronized public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        while (compiled.size() > Math.max(maxSize, 0)) {
+            compiled.remove(compiled.keySet().iterator().next());
+        }
+    }
+
+    synchronized public int size() {
+        return compiled.size();
+    }
+}
@@ -8,16 +8,46 @@ import org.globsframework.sqlstreams.SqlConnection;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.ValueConstraintVisitor;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.WhereClauseConstraintVisitor;
+import org.globsframework.sqlstreams.exceptions.ConstraintViolation;
 import org.globsframework.sqlstreams.exceptions.RollbackFailed;
+import org.globsframework.sqlstreams.utils.AsyncExecutors;
+import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.globsframework.streams.GlobStream;
 import org.globsframework.streams.accessors.IntegerAccessor;
 import org.globsframework.utils.Ref;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reserve blocks of blockSize ids per table in the db (atomic 'UPDATE ... SET id = id + blockSize') and hand
+ * them out from memory. The next block is reserved in background when a quarter of the current one is left.
+ * Ids not used before shutdown are lost.
+ */
 public class DbGlobIdGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DbGlobIdGenerator.class);
+    public static final int DEFAULT_BLOCK_SIZE = 100;
     private GlobType globType;
     private StringField tableNameField;
     private IntegerField idField;
     private SqlService sqlService;
+    private final Map<String, TableIds> tables = new ConcurrentHashMap<>();
+    private volatile int blockSize = DEFAULT_BLOCK_SIZE;
+    private volatile boolean prefetch = true;
+    private volatile Executor executor = AsyncExecutors.getDefault();
 
     public DbGlobIdGenerator(GlobType globType, StringField tableNameField,
                              IntegerField idField, SqlService sqlService) {
@@ -27,20 +57,111 @@ public class DbGlobIdGenerator {
         this.sqlService = sqlService;
     }
 
-    synchronized public int getNextId(String tableName, int idCount) {
-        SqlConnection sqlConnection = sqlService.getDb();
+    // 1 to reserve each id in the db.
+    public void setBlockSize(int blockSize) {
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    // first id of a range of idCount ids.
+    public int getNextId(String tableName, int idCount) {
+        int size = blockSize;
+        if (idCount > size) {
+            return Math.toIntExact(allocate(tableName, idCount).first);
+        }
+        TableIds tableIds = tables.computeIfAbsent(tableName, TableIds::new);
+        while (true) {
+            Range range = tableIds.current.get();
+            if (range != null) {
+                long id = range.next.getAndAdd(idCount);
+                long remaining = range.end - id - idCount;
+                if (remaining >= 0) {
+                    if (prefetch && remaining < size / 4) {
+                        tableIds.prefetch(size);
+                    }
+                    return Math.toIntExact(id);
+                }
+            }
+            tableIds.renew(range, size);
+        }
+    }
+
+    private class TableIds {
+        private final String tableName;
+        private final AtomicReference<Range> current = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<Range>> next = new AtomicReference<>();
+
+        TableIds(String tableName) {
+            this.tableName = tableName;
+        }
+
+        void prefetch(int size) {
+            if (next.get() == null) {
+                CompletableFuture<Range> future = new CompletableFuture<>();
+                if (next.compareAndSet(null, future)) {
+                    executor.execute(() -> {
+                        try {
+                            future.complete(allocate(tableName, size));
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        }
+                    });
+                }
+            }
+        }
+
+        synchronized void renew(Range exhausted, int size) {
+            if (current.get() != exhausted) {
+                return;
+            }
+            Range range = null;
+            CompletableFuture<Range> future = next.getAndSet(null);
+            if (future != null) {
+                try {
+                    range = future.join();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Fail to prefetch ids for " + tableName, e);
+                }
+            }
+            current.set(range != null ? range : allocate(tableName, size));
+        }
+    }
+
+    private static class Range {
+        private final long first;
+        private final AtomicLong next;
+        private final long end;
+
+        Range(long first, long end) {
+            this.first = first;
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+
+    private Range allocate(String tableName, int idCount) {
         while (true) {
+            SqlConnection sqlConnection = sqlService.getDb();
             try {
-                Ref<IntegerAccessor> idRef = new Ref<IntegerAccessor>();
                 Constraint constraint = Constraints.and(getAdditionalConstraint(),
                       Constraints.equal(tableNameField, tableName));
-                GlobStream globStream = sqlConnection.getQueryBuilder(globType, constraint)
-                      .select(idField, idRef).getQuery().execute();
                 int id;
-                if (globStream.next()) {
-                    id = idRef.get().getInteger() + idCount;
-                    sqlConnection.getUpdateBuilder(globType, Constraints.equal(tableNameField, tableName))
-                          .update(idField, id).getRequest().run();
+                if (increment(sqlConnection, constraint, idCount) != 0) {
+                    Ref<IntegerAccessor> idRef = new Ref<IntegerAccessor>();
+                    GlobStream globStream = sqlConnection.getQueryBuilder(globType, constraint)
+                          .select(idField, idRef).getQuery().execute();
+                    if (!globStream.next()) {
+                        throw new UnexpectedApplicationState("Id row for " + tableName + " not found after update");
+                    }
+                    id = idRef.get().getInteger();
+                    globStream.close();
                 } else {
                     id = idCount;
                     CreateBuilder builder = sqlConnection.getCreateBuilder(globType)
@@ -50,18 +171,46 @@ public class DbGlobIdGenerator {
                     builder.getRequest().run();
                 }
                 sqlConnection.commitAndClose();
-                return id - idCount;
-            } catch (RollbackFailed e) {
+                return new Range(id - idCount, id);
+            } catch (RollbackFailed | ConstraintViolation e) {
+                sqlConnection.rollbackAndClose();
                 try {
                     Thread.sleep(10);
                 } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                    throw new UnexpectedApplicationState("Interrupted while reserving ids for " + tableName, e1);
                 }
-            } finally {
+            } catch (RuntimeException e) {
                 sqlConnection.rollbackAndClose();
+                throw e;
             }
         }
     }
 
+    // the row is locked by the update until commit.
+    private int increment(SqlConnection sqlConnection, Constraint constraint, int idCount) {
+        String column = sqlService.getColumnName(idField);
+        StringPrettyWriter prettyWriter = new StringPrettyWriter();
+        prettyWriter.append("UPDATE ")
+              .append(sqlService.getTableName(globType))
+              .append(" SET ")
+              .append(column)
+              .append(" = ")
+              .append(column)
+              .append(" + ? WHERE ");
+        Set<GlobType> globTypes = new HashSet<GlobType>();
+        globTypes.add(globType);
+        constraint.visit(new WhereClauseConstraintVisitor(prettyWriter, sqlService, globTypes));
+        String sql = prettyWriter.toString();
+        try (PreparedStatement preparedStatement = sqlConnection.getConnection().prepareStatement(sql)) {
+            preparedStatement.setInt(1, idCount);
+            constraint.visit(new ValueConstraintVisitor(preparedStatement, 1, null));
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new UnexpectedApplicationState("For request : " + sql, e);
+        }
+    }
+
     protected void addAdditionalInfo(CreateBuilder builder) {
     }
 
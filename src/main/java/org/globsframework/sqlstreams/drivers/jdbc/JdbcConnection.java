@@ -4,10 +4,16 @@ import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.GlobTypeBuilder;
 import org.globsframework.metamodel.GlobTypeBuilderFactory;
+import org.globsframework.metamodel.index.Index;
+import org.globsframework.metamodel.index.impl.IsUniqueIndexVisitor;
+import org.globsframework.model.FieldValues;
 import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
 import org.globsframework.sqlstreams.*;
+import org.globsframework.sqlstreams.annotations.DbIndex;
 import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlFieldCreationVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.request.SqlCreateBuilder;
 import org.globsframework.sqlstreams.drivers.jdbc.request.SqlDeleteBuilder;
@@ -17,6 +23,9 @@ import org.globsframework.sqlstreams.exceptions.ConstraintViolation;
 import org.globsframework.sqlstreams.exceptions.RollbackFailed;
 import org.globsframework.sqlstreams.exceptions.SqlException;
 import org.globsframework.sqlstreams.metadata.DbChecker;
+import org.globsframework.sqlstreams.metrics.QueryListener;
+import org.globsframework.sqlstreams.utils.AsyncExecutors;
+import org.globsframework.sqlstreams.utils.KeyChunks;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.globsframework.utils.exceptions.GlobsException;
 import org.globsframework.utils.exceptions.OperationDenied;
@@ -25,29 +34,163 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 public abstract class JdbcConnection implements SqlConnection {
+    public static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+    public static final int DEFAULT_FETCH_SIZE = 1000;
     private Logger LOGGER  = LoggerFactory.getLogger(JdbcConnection.class);
     private Connection connection;
     protected SqlService sqlService;
     private BlobUpdater blobUpdater;
     private DbChecker checker;
+    private SqlStatementCache statementCache;
+    private CompiledSelectCache compiledSelectCache;
+    private int bulkBatchSize = DEFAULT_BULK_BATCH_SIZE;
+    private boolean multiRowInsert = true;
+    private boolean parallelKeyReads;
+    private FetchStrategy defaultFetchStrategy;
+    private int defaultFetchSize = DEFAULT_FETCH_SIZE;
+    private Executor executor = AsyncExecutors.getDefault();
+    private QueryListener queryListener = QueryListener.NULL;
+    private JdbcConnectionPool pool;
+    private JdbcConnectionPool.PooledConnection pooledConnection;
+    private boolean pendingWrites;
 
     public JdbcConnection(Connection connection, SqlService sqlService, BlobUpdater blobUpdater) {
         this.connection = connection;
         this.sqlService = sqlService;
         this.blobUpdater = blobUpdater;
         checker = new DbChecker(sqlService, this);
+        statementCache = new SqlStatementCache(connection, SqlStatementCache.DEFAULT_SIZE);
+        compiledSelectCache = new CompiledSelectCache(CompiledSelectCache.DEFAULT_SIZE);
+    }
+
+    public void setCompiledSelectCache(CompiledSelectCache compiledSelectCache) {
+        this.compiledSelectCache = compiledSelectCache;
+    }
+
+    // commitAndClose/rollbackAndClose will give back the connection to the pool.
+    public void attachToPool(JdbcConnectionPool pool, JdbcConnectionPool.PooledConnection pooledConnection) {
+        this.pool = pool;
+        this.pooledConnection = pooledConnection;
+        this.statementCache = pooledConnection.getStatementCache();
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void setQueryListener(QueryListener queryListener) {
+        this.queryListener = queryListener;
+    }
+
+    public QueryListener getQueryListener() {
+        return queryListener;
+    }
+
+    public static String getDriverName(Connection connection) {
+        try {
+            return connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            return "jdbc";
+        }
+    }
+
+    // rows changed by a jdbc batch ; a SUCCESS_NO_INFO entry counts for one row.
+    static long getBatchCount(int[] counts) {
+        long count = 0;
+        for (int value : counts) {
+            count += value >= 0 ? value : (value == Statement.SUCCESS_NO_INFO ? 1 : 0);
+        }
+        return count;
+    }
+
+    public void setBulkBatchSize(int bulkBatchSize) {
+        this.bulkBatchSize = bulkBatchSize;
+    }
+
+    public int getBulkBatchSize() {
+        return bulkBatchSize;
+    }
+
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    public void setParallelKeyReads(boolean parallelKeyReads) {
+        this.parallelKeyReads = parallelKeyReads;
+    }
+
+    public boolean useMultiRowInsert() {
+        return multiRowInsert && supportMultiRowInsert();
+    }
+
+    protected boolean supportMultiRowInsert() {
+        return false;
+    }
+
+    // null to use the driver default.
+    public void setDefaultFetchStrategy(FetchStrategy fetchStrategy, int fetchSize) {
+        this.defaultFetchStrategy = fetchStrategy;
+        this.defaultFetchSize = fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+    }
+
+    public FetchStrategy getDefaultFetchStrategy() {
+        return defaultFetchStrategy != null ? defaultFetchStrategy : getDriverFetchStrategy();
+    }
+
+    public int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    protected FetchStrategy getDriverFetchStrategy() {
+        return FetchStrategy.BUFFERED;
+    }
+
+    public void applyFetchStrategy(PreparedStatement preparedStatement, FetchStrategy fetchStrategy, int fetchSize) throws SQLException {
+        switch (fetchStrategy) {
+            case BUFFERED:
+                preparedStatement.setFetchSize(0);
+                break;
+            case STREAMING:
+                preparedStatement.setFetchSize(1);
+                break;
+            case CURSOR:
+                preparedStatement.setFetchSize(fetchSize);
+                break;
+        }
+    }
+
+    public void setStatementCacheSize(int size) {
+        statementCache.setMaxSize(size);
+    }
+
+    // an other connection of the same service, for the reads run outside of this unit of work.
+    JdbcConnection newConnection() {
+        return (JdbcConnection) sqlService.getDb();
+    }
+
+    SqlStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    CompiledSelectCache getCompiledSelectCache() {
+        return compiledSelectCache;
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType) {
         checkConnectionIsNotClosed();
-        return new SqlQueryBuilder(connection, globType, null, sqlService, blobUpdater);
+        return new SqlQueryBuilder(statementCache, compiledSelectCache, executor, globType, null, sqlService, blobUpdater, this);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new SqlQueryBuilder(connection, globType, constraint, sqlService, blobUpdater);
+        return new SqlQueryBuilder(statementCache, compiledSelectCache, executor, globType, constraint, sqlService, blobUpdater, this);
     }
 
     public SelectBuilder getQueryBuilder(GlobType globType, String sqlRequest) {
@@ -58,12 +201,13 @@ public abstract class JdbcConnection implements SqlConnection {
 //            initColumns(globTypeBuilder, metaData);
 //            GlobType globType = globTypeBuilder.get();
 //            LOGGER.info("GlobType deduce from '" + sqlRequest + " => " + globType.describe());
-        return new SqlQueryBuilder(connection, globType, null, sqlService, blobUpdater, sqlRequest);
+        return new SqlQueryBuilder(statementCache, compiledSelectCache, executor, globType, null, sqlService, blobUpdater, sqlRequest, this);
     }
 
     public UpdateBuilder getUpdateBuilder(GlobType globType, Constraint constraint) {
         checkConnectionIsNotClosed();
-        return new SqlUpdateBuilder(connection, globType, sqlService, constraint, blobUpdater);
+        pendingWrites = true;
+        return new SqlUpdateBuilder(connection, globType, sqlService, constraint, blobUpdater, this);
     }
 
     private void checkConnectionIsNotClosed() {
@@ -80,6 +224,7 @@ public abstract class JdbcConnection implements SqlConnection {
         checkConnectionIsNotClosed();
         try {
             connection.commit();
+            pendingWrites = false;
         } catch (SQLException e) {
             throw getTypedException(null, e);
         }
@@ -102,6 +247,8 @@ public abstract class JdbcConnection implements SqlConnection {
     }
 
     public CreateBuilder getCreateBuilder(GlobType globType) {
+        checkConnectionIsNotClosed();
+        pendingWrites = true;
         return new SqlCreateBuilder(connection, globType, sqlService, blobUpdater, this);
     }
 
@@ -113,6 +260,9 @@ public abstract class JdbcConnection implements SqlConnection {
 
     private void createTable(GlobType globType) {
         if (checker.tableExists(globType)) {
+            for (Index index : checker.getMissingIndices(globType)) {
+                LOGGER.warn("Missing index on existing table : " + getCreateIndexRequest(globType, index));
+            }
             return;
         }
         StringPrettyWriter writer = new StringPrettyWriter();
@@ -143,6 +293,36 @@ public abstract class JdbcConnection implements SqlConnection {
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("Invalid creation request: " + writer.toString(), e);
         }
+        for (Index index : DbIndex.getIndices(globType)) {
+            createIndex(globType, index);
+        }
+    }
+
+    private void createIndex(GlobType globType, Index index) {
+        String request = getCreateIndexRequest(globType, index);
+        try {
+            PreparedStatement statement = connection.prepareStatement(request);
+            statement.executeUpdate();
+            statement.close();
+        } catch (SQLException e) {
+            throw new UnexpectedApplicationState("Invalid index creation request: " + request, e);
+        }
+    }
+
+    // index names are prefixed by the table name : they are global to the schema for some databases.
+    public String getCreateIndexRequest(GlobType globType, Index index) {
+        String tableName = sqlService.getTableName(globType);
+        StringPrettyWriter writer = new StringPrettyWriter();
+        writer.append("CREATE ");
+        writer.appendIf("UNIQUE ", index.visit(new IsUniqueIndexVisitor()).isUnique());
+        writer.append("INDEX ")
+              .append(tableName + "_" + index.getName())
+              .append(" ON ")
+              .append(tableName)
+              .append(" (")
+              .append(index.fields().map(sqlService::getColumnName).collect(Collectors.joining(", ")))
+              .append(");");
+        return writer.toString();
     }
 
     public void emptyTable(GlobType... globTypes) {
@@ -152,6 +332,7 @@ public abstract class JdbcConnection implements SqlConnection {
     }
 
     private void emptyTable(GlobType globType) {
+        pendingWrites = true;
         StringPrettyWriter writer = new StringPrettyWriter();
         writer.append("DELETE FROM ")
               .append(sqlService.getTableName(globType))
@@ -181,11 +362,165 @@ public abstract class JdbcConnection implements SqlConnection {
     abstract protected SqlFieldCreationVisitor getFieldVisitorCreator(StringPrettyWriter prettyWriter);
 
     public SqlRequest getDeleteRequest(GlobType globType) {
-        return new SqlDeleteBuilder(globType, null, connection, sqlService, blobUpdater);
+        checkConnectionIsNotClosed();
+        pendingWrites = true;
+        return new SqlDeleteBuilder(globType, null, connection, sqlService, blobUpdater, queryListener);
     }
 
     public SqlRequest getDeleteRequest(GlobType globType, Constraint constraint) {
-        return new SqlDeleteBuilder(globType, constraint, connection, sqlService, blobUpdater);
+        checkConnectionIsNotClosed();
+        pendingWrites = true;
+        return new SqlDeleteBuilder(globType, constraint, connection, sqlService, blobUpdater, queryListener);
+    }
+
+    public void deleteByKeys(Collection<Key> keys) {
+        for (Map.Entry<GlobType, List<List<Key>>> entry : KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).entrySet()) {
+            for (List<Key> chunk : entry.getValue()) {
+                SqlRequest request = getDeleteRequest(entry.getKey(), Constraints.keysIn(chunk));
+                try {
+                    request.run();
+                } finally {
+                    request.close();
+                }
+            }
+        }
+    }
+
+    public void updateByKeys(Collection<Key> keys, FieldValues values) {
+        for (Map.Entry<GlobType, List<List<Key>>> entry : KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).entrySet()) {
+            for (List<Key> chunk : entry.getValue()) {
+                UpdateBuilder updateBuilder = getUpdateBuilder(entry.getKey(), Constraints.keysIn(chunk));
+                values.safeApply((field, value) -> {
+                    if (!field.isKeyField()) {
+                        updateBuilder.updateUntyped(field, value);
+                    }
+                });
+                SqlRequest request = updateBuilder.getRequest();
+                try {
+                    request.run();
+                } finally {
+                    request.close();
+                }
+            }
+        }
+    }
+
+    // with parallelKeyReads and no uncommitted writes on this connection, the chunks are also read on the free
+    // connections of the pool (without waiting for one) ; the other chunks are read on this connection.
+    public Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys, Field... fields) {
+        Map<Key, Glob> result = new HashMap<>();
+        List<List<Key>> chunks = KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).remove(globType);
+        if (chunks == null) {
+            return result;
+        }
+        if (chunks.size() == 1 || !parallelKeyReads || pendingWrites || !(sqlService instanceof JdbcSqlService)) {
+            for (List<Key> chunk : chunks) {
+                addByKeys(this, globType, chunk, fields, result);
+            }
+            return result;
+        }
+        List<CompletableFuture<Map<Key, Glob>>> futures = new ArrayList<>();
+        List<List<Key>> localChunks = new ArrayList<>();
+        localChunks.add(chunks.get(0));
+        for (List<Key> chunk : chunks.subList(1, chunks.size())) {
+            JdbcConnection db = ((JdbcSqlService) sqlService).tryGetPooledDb();
+            if (db == null) {
+                localChunks.add(chunk);
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return addByKeys(db, globType, chunk, fields, new HashMap<>());
+                } finally {
+                    db.rollbackAndClose();
+                }
+            }, executor));
+        }
+        for (List<Key> chunk : localChunks) {
+            addByKeys(this, globType, chunk, fields, result);
+        }
+        try {
+            for (CompletableFuture<Map<Key, Glob>> future : futures) {
+                result.putAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    static Map<Key, Glob> addByKeys(SqlConnection sqlConnection, GlobType globType, List<Key> keys, Field[] fields, Map<Key, Glob> result) {
+        SelectBuilder selectBuilder = sqlConnection.getQueryBuilder(globType, Constraints.keysIn(keys));
+        if (fields.length == 0) {
+            selectBuilder.selectAll();
+        } else {
+            selectBuilder.withKeys();
+            for (Field field : fields) {
+                selectBuilder.select(field);
+            }
+        }
+        for (Glob glob : selectBuilder.getQuery().executeAsGlobs()) {
+            result.put(glob.getKey(), glob);
+        }
+        return result;
+    }
+
+    // the rows of the plan, joined by ' | ' ; null if the statement can not be explained by this database.
+    public String explain(QueryListener.Kind kind, String sql, List<Object> parameters) {
+        String explainSql = getExplainSql(kind, sql);
+        if (explainSql == null) {
+            return null;
+        }
+        try {
+            if (isExplainBound()) {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(explainSql)) {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        preparedStatement.setObject(i + 1, parameters.get(i));
+                    }
+                    return readPlan(preparedStatement.executeQuery());
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                return readPlan(statement.executeQuery(explainSql));
+            }
+        } catch (SQLException e) {
+            throw getTypedException(explainSql, e);
+        }
+    }
+
+    private static String readPlan(ResultSet resultSet) throws SQLException {
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                if (plan.length() != 0) {
+                    plan.append(" | ");
+                }
+                if (columnCount == 1) {
+                    plan.append(resultSet.getString(1));
+                } else {
+                    for (int i = 1; i <= columnCount; i++) {
+                        plan.append(i == 1 ? "" : ", ").append(metaData.getColumnLabel(i)).append('=').append(resultSet.getString(i));
+                    }
+                }
+            }
+            return plan.toString();
+        } finally {
+            resultSet.close();
+        }
+    }
+
+    protected String getExplainSql(QueryListener.Kind kind, String sql) {
+        return null;
+    }
+
+    // false if the explain statement does not take the parameters of the statement.
+    protected boolean isExplainBound() {
+        return true;
     }
 
     public Connection getConnection() {
@@ -214,7 +549,12 @@ public abstract class JdbcConnection implements SqlConnection {
             ex = getTypedException(null, e);
         } finally {
             try {
-                connection.close();
+                if (pool != null) {
+                    pool.release(pooledConnection, ex != null);
+                } else {
+                    statementCache.clear();
+                    connection.close();
+                }
             } catch (SQLException e) {
                 if (ex == null) {
                     ex = new OperationDenied(e);
@@ -0,0 +1,294 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of physical connections.
+ * Each pooled connection keeps its statement cache, so prepared statements survive a commitAndClose.
+ */
+public class JdbcConnectionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcConnectionPool.class);
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "globs-db-pool-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Supplier<Connection> connectionFactory;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore available;
+    private final int minSize;
+    private final int maxSize;
+    private volatile long idleTimeoutMs = TimeUnit.MINUTES.toMillis(10);
+    private volatile long borrowTimeoutMs = TimeUnit.SECONDS.toMillis(30);
+    private volatile long leakDetectionThresholdMs = 0;
+    private volatile int validationTimeoutSecond = 2;
+    private final ScheduledFuture<?> sweeper;
+    private int totalCount;
+    private boolean closed;
+
+    public JdbcConnectionPool(Supplier<Connection> connectionFactory, int minSize, int maxSize) {
+        this.connectionFactory = connectionFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.available = new Semaphore(maxSize, true);
+        sweeper = SWEEPER.scheduleWithFixedDelay(new Sweep(this), 10, 10, TimeUnit.SECONDS);
+    }
+
+    public static class PooledConnection {
+        private final Connection connection;
+        private final SqlStatementCache statementCache;
+        private long lastUsed;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowedBy;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.statementCache = new SqlStatementCache(connection, SqlStatementCache.DEFAULT_SIZE);
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        public SqlStatementCache getStatementCache() {
+            return statementCache;
+        }
+    }
+
+    public void setIdleTimeout(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    public void setBorrowTimeout(long borrowTimeoutMs) {
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    // 0 to disable; when set the stack of each borrow is kept to be logged.
+    public void setLeakDetectionThreshold(long leakDetectionThresholdMs) {
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+    }
+
+    public void setValidationTimeout(int validationTimeoutSecond) {
+        this.validationTimeoutSecond = validationTimeoutSecond;
+    }
+
+    public PooledConnection borrow() {
+        try {
+            if (!available.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new UnexpectedApplicationState("No connection available after " + borrowTimeoutMs + "ms (max " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedApplicationState("Interrupted while waiting for a connection", e);
+        }
+        return take();
+    }
+
+    // null if all the connections are in use : never wait.
+    public PooledConnection tryBorrow() {
+        if (!available.tryAcquire()) {
+            return null;
+        }
+        return take();
+    }
+
+    private PooledConnection take() {
+        try {
+            PooledConnection pooledConnection = takeIdleValidConnection();
+            if (pooledConnection == null) {
+                pooledConnection = new PooledConnection(connectionFactory.get());
+                synchronized (this) {
+                    totalCount++;
+                }
+            }
+            pooledConnection.borrowedAt = System.currentTimeMillis();
+            pooledConnection.leakReported = false;
+            pooledConnection.borrowedBy = leakDetectionThresholdMs > 0 ? new Exception("Connection borrowed here") : null;
+            borrowed.add(pooledConnection);
+            return pooledConnection;
+        } catch (RuntimeException e) {
+            available.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleValidConnection() {
+        while (true) {
+            PooledConnection pooledConnection;
+            synchronized (this) {
+                if (closed) {
+                    throw new UnexpectedApplicationState("Connection pool closed");
+                }
+                pooledConnection = idle.pollFirst();
+            }
+            if (pooledConnection == null) {
+                return null;
+            }
+            if (isValid(pooledConnection.connection)) {
+                return pooledConnection;
+            }
+            LOGGER.info("Discard invalid connection");
+            discard(pooledConnection);
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSecond);
+        } catch (AbstractMethodError e) {
+            // jdbc 3 driver (hsqldb 1.8)
+            try {
+                return !connection.isClosed();
+            } catch (SQLException e1) {
+                return false;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public void release(PooledConnection pooledConnection, boolean broken) {
+        if (!borrowed.remove(pooledConnection)) {
+            return;
+        }
+        try {
+            pooledConnection.borrowedBy = null;
+            if (broken) {
+                discard(pooledConnection);
+                return;
+            }
+            pooledConnection.lastUsed = System.currentTimeMillis();
+            synchronized (this) {
+                if (!closed) {
+                    idle.addFirst(pooledConnection);
+                    return;
+                }
+            }
+            discard(pooledConnection);
+        } finally {
+            available.release();
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        synchronized (this) {
+            totalCount--;
+        }
+        pooledConnection.statementCache.clear();
+        try {
+            pooledConnection.connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to close connection", e);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized public int getIdleCount() {
+        return idle.size();
+    }
+
+    synchronized public int getTotalCount() {
+        return totalCount;
+    }
+
+    void sweep() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            PooledConnection toEvict = null;
+            synchronized (this) {
+                if (totalCount <= minSize) {
+                    break;
+                }
+                for (Iterator<PooledConnection> it = idle.descendingIterator(); it.hasNext(); ) {
+                    PooledConnection pooledConnection = it.next();
+                    if (now - pooledConnection.lastUsed > idleTimeoutMs) {
+                        it.remove();
+                        toEvict = pooledConnection;
+                        break;
+                    }
+                }
+            }
+            if (toEvict == null) {
+                break;
+            }
+            discard(toEvict);
+        }
+        while (getTotalCount() < minSize && available.tryAcquire()) {
+            try {
+                PooledConnection pooledConnection = new PooledConnection(connectionFactory.get());
+                pooledConnection.lastUsed = now;
+                synchronized (this) {
+                    totalCount++;
+                    if (!closed) {
+                        idle.addLast(pooledConnection);
+                        continue;
+                    }
+                }
+                discard(pooledConnection);
+                break;
+            } finally {
+                available.release();
+            }
+        }
+        long threshold = leakDetectionThresholdMs;
+        if (threshold > 0) {
+            for (PooledConnection pooledConnection : borrowed) {
+                Throwable borrowedBy = pooledConnection.borrowedBy;
+                if (!pooledConnection.leakReported && borrowedBy != null && now - pooledConnection.borrowedAt > threshold) {
+                    pooledConnection.leakReported = true;
+                    LOGGER.warn("Connection not returned to the pool after " + (now - pooledConnection.borrowedAt) + "ms", borrowedBy);
+                }
+            }
+        }
+    }
+
+    public void close() {
+        sweeper.cancel(false);
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+        }
+        for (PooledConnection pooledConnection : toClose) {
+            discard(pooledConnection);
+        }
+    }
+
+    private static class Sweep implements Runnable {
+        private final WeakReference<JdbcConnectionPool> pool;
+
+        Sweep(JdbcConnectionPool pool) {
+            this.pool = new WeakReference<>(pool);
+        }
+
+        public void run() {
+            JdbcConnectionPool connectionPool = pool.get();
+            if (connectionPool == null) {
+                throw new CancellationException("pool collected");
+            }
+            try {
+                connectionPool.sweep();
+            } catch (Exception e) {
+                LOGGER.error("Fail to sweep connection pool", e);
+            }
+        }
+    }
+}
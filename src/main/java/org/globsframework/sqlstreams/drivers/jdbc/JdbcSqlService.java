@@ -3,10 +3,13 @@ package org.globsframework.sqlstreams.drivers.jdbc;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.model.Glob;
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SqlConnection;
 import org.globsframework.sqlstreams.annotations.DbFieldName;
 import org.globsframework.sqlstreams.drivers.hsqldb.HsqlConnection;
 import org.globsframework.sqlstreams.drivers.mysql.MysqlConnection;
+import org.globsframework.sqlstreams.metrics.QueryListener;
+import org.globsframework.sqlstreams.metrics.QueryPlanner;
 import org.globsframework.sqlstreams.utils.AbstractSqlService;
 import org.globsframework.utils.exceptions.ItemNotFound;
 import org.globsframework.utils.exceptions.UnexpectedApplicationState;
@@ -15,15 +18,26 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
-public class JdbcSqlService extends AbstractSqlService {
+public class JdbcSqlService extends AbstractSqlService implements QueryPlanner {
     private static Map<String, Driver> loadedDrivers = new HashMap<String, Driver>();
     private Driver driver;
     private String dbName;
     private Properties dbInfo;
     private DbFactory dbFactory;
+    private int statementCacheSize = SqlStatementCache.DEFAULT_SIZE;
+    private int bulkBatchSize = JdbcConnection.DEFAULT_BULK_BATCH_SIZE;
+    private boolean multiRowInsert = true;
+    private boolean parallelKeyReads;
+    private FetchStrategy fetchStrategy;
+    private int fetchSize = JdbcConnection.DEFAULT_FETCH_SIZE;
+    private CompiledSelectCache compiledSelectCache = new CompiledSelectCache(CompiledSelectCache.DEFAULT_SIZE);
+    private int poolMinSize = 0;
+    private int poolMaxSize = 0;
+    private volatile JdbcConnectionPool connectionPool;
     NamingMapping namingMapping;
 
     public JdbcSqlService(String dbName, String user, String password, NamingMapping namingMapping) {
@@ -46,7 +60,7 @@ public class JdbcSqlService extends AbstractSqlService {
     }
 
     interface DbFactory {
-        SqlConnection create();
+        JdbcConnection create(Connection connection);
     }
 
     public String getTableName(GlobType globType) {
@@ -64,13 +78,7 @@ public class JdbcSqlService extends AbstractSqlService {
                     driver = (Driver) Class.forName("org.hsqldb.jdbcDriver").newInstance();
                 }
                 dbFactory = new DbFactory() {
-                    public SqlConnection create() {
-                        Connection connection = getConnection();
-                        try {
-                            connection.setAutoCommit(false);
-                        } catch (SQLException e) {
-                            throw new UnexpectedApplicationState(e);
-                        }
+                    public JdbcConnection create(Connection connection) {
                         return new HsqlConnection(connection, JdbcSqlService.this);
                     }
                 };
@@ -80,14 +88,7 @@ public class JdbcSqlService extends AbstractSqlService {
                 }
 //    dbInfo.put("autoReconnect", Boolean.TRUE);
                 dbFactory = new DbFactory() {
-                    public SqlConnection create() {
-                        Connection connection = getConnection();
-                        try {
-                            connection.setAutoCommit(false);
-                        } catch (SQLException e) {
-                            throw new UnexpectedApplicationState(e);
-                        }
-
+                    public JdbcConnection create(Connection connection) {
                         return new MysqlConnection(connection, JdbcSqlService.this);
                     }
                 };
@@ -101,10 +102,115 @@ public class JdbcSqlService extends AbstractSqlService {
     }
 
     public SqlConnection getDb() {
-        return dbFactory.create();
+        JdbcConnectionPool pool = getConnectionPool();
+        if (pool == null) {
+            return init(dbFactory.create(createConnection()));
+        }
+        return init(pool, pool.borrow());
+    }
+
+    // null if there is no pool or if all its connections are in use.
+    JdbcConnection tryGetPooledDb() {
+        JdbcConnectionPool pool = getConnectionPool();
+        JdbcConnectionPool.PooledConnection pooledConnection = pool == null ? null : pool.tryBorrow();
+        return pooledConnection == null ? null : init(pool, pooledConnection);
+    }
+
+    private JdbcConnection init(JdbcConnectionPool pool, JdbcConnectionPool.PooledConnection pooledConnection) {
+        JdbcConnection jdbcConnection = dbFactory.create(pooledConnection.getConnection());
+        jdbcConnection.attachToPool(pool, pooledConnection);
+        return init(jdbcConnection);
+    }
+
+    // off by default ; must be called before the first getDb(), maxSize == 0 disable the pool.
+    // With a pool, getDb() waits for a free connection (and fails after the borrow timeout) once maxSize are in use,
+    // and all the requests of a SqlConnection must be closed before its commitAndClose/rollbackAndClose :
+    // the physical connection, and the statements still open on it, go to the next borrower.
+    public void setConnectionPoolSize(int minSize, int maxSize) {
+        this.poolMinSize = minSize;
+        this.poolMaxSize = maxSize;
+    }
+
+    public JdbcConnectionPool getConnectionPool() {
+        JdbcConnectionPool pool = connectionPool;
+        if (pool == null && poolMaxSize > 0) {
+            synchronized (this) {
+                if (connectionPool == null) {
+                    connectionPool = new JdbcConnectionPool(this::createConnection, poolMinSize, poolMaxSize);
+                }
+                pool = connectionPool;
+            }
+        }
+        return pool;
+    }
+
+    public String explain(QueryListener.Kind kind, String sql, List<Object> parameters) {
+        JdbcConnection jdbcConnection = (JdbcConnection) getDb();
+        try {
+            return jdbcConnection.explain(kind, sql, parameters);
+        } finally {
+            jdbcConnection.rollbackAndClose();
+        }
+    }
+
+    public void close() {
+        JdbcConnectionPool pool = connectionPool;
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private Connection createConnection() {
+        Connection connection = getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new UnexpectedApplicationState(e);
+        }
+        return connection;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public void setCompiledSelectCacheSize(int size) {
+        compiledSelectCache.setMaxSize(size);
+    }
+
+    public void setBulkBatchSize(int bulkBatchSize) {
+        this.bulkBatchSize = bulkBatchSize;
+    }
+
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    // off by default. With a pool, getByKeys also read its chunks on the connections of the pool free at that time ;
+    // these reads are outside the transaction of the caller : they see the committed rows only.
+    public void setParallelKeyReads(boolean parallelKeyReads) {
+        this.parallelKeyReads = parallelKeyReads;
+    }
+
+    // default for the queries without fetchStrategy/fetchSize ; null to use the driver default.
+    public void setDefaultFetchStrategy(FetchStrategy fetchStrategy, int fetchSize) {
+        this.fetchStrategy = fetchStrategy;
+        this.fetchSize = fetchSize;
+    }
+
+    private JdbcConnection init(JdbcConnection jdbcConnection) {
+        jdbcConnection.setDefaultFetchStrategy(fetchStrategy, fetchSize);
+        jdbcConnection.setBulkBatchSize(bulkBatchSize);
+        jdbcConnection.setMultiRowInsert(multiRowInsert);
+        jdbcConnection.setParallelKeyReads(parallelKeyReads);
+        jdbcConnection.setStatementCacheSize(statementCacheSize);
+        jdbcConnection.setExecutor(getExecutor());
+        jdbcConnection.setQueryListener(getQueryListener());
+        jdbcConnection.setCompiledSelectCache(compiledSelectCache);
+        return jdbcConnection;
     }
 
-    synchronized public Connection getConnection() {
+    public Connection getConnection() {
         try {
             return driver.connect(dbName, dbInfo);
         } catch (SQLException e) {
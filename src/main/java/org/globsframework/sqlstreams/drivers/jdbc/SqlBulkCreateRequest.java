@@ -0,0 +1,220 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.SqlService;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlValueFieldVisitor;
+import org.globsframework.sqlstreams.exceptions.SqlException;
+import org.globsframework.sqlstreams.metrics.QueryListener;
+import org.globsframework.sqlstreams.utils.StringPrettyWriter;
+import org.globsframework.streams.accessors.Accessor;
+import org.globsframework.utils.collections.Pair;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Insert through addBatch/executeBatch, flushed every batchSize rows.
+ * With multiRowInsert, full batches are sent as a single INSERT ... VALUES (...),(...) ; the remaining rows
+ * go through the batch statement on flush.
+ */
+public class SqlBulkCreateRequest implements BulkDbRequest, QueryListener.Details {
+    static final int MAX_PARAMETERS = 30000;
+    private final Connection connection;
+    private final Field[] fields;
+    private final Accessor[] accessors;
+    private final GlobType globType;
+    private final SqlService sqlService;
+    private final BlobUpdater blobUpdater;
+    private final JdbcConnection jdbcConnection;
+    private final int batchSize;
+    private final boolean multiRowInsert;
+    private final String sql;
+    private final PreparedStatement preparedStatement;
+    private final SqlValueFieldVisitor sqlValueVisitor;
+    private PreparedStatement multiRowStatement;
+    private SqlValueFieldVisitor multiRowValueVisitor;
+    private String multiRowSql;
+    private final List<Object[]> rows = new ArrayList<>();
+    private int pendingCount;
+    private long prepareNanos;
+    private long multiRowPrepareNanos;
+
+    public SqlBulkCreateRequest(List<Pair<Field, Accessor>> fields, Connection connection,
+                                GlobType globType, SqlService sqlService, BlobUpdater blobUpdater,
+                                JdbcConnection jdbcConnection, int batchSize, boolean multiRowInsert) {
+        this.connection = connection;
+        this.globType = globType;
+        this.sqlService = sqlService;
+        this.blobUpdater = blobUpdater;
+        this.jdbcConnection = jdbcConnection;
+        this.fields = new Field[fields.size()];
+        this.accessors = new Accessor[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            this.fields[i] = fields.get(i).getFirst();
+            this.accessors[i] = fields.get(i).getSecond();
+        }
+        this.multiRowInsert = multiRowInsert && this.fields.length != 0;
+        this.batchSize = this.multiRowInsert ? Math.max(1, Math.min(batchSize, MAX_PARAMETERS / this.fields.length)) : Math.max(1, batchSize);
+        long start = System.nanoTime();
+        sql = prepareRequest(1);
+        try {
+            preparedStatement = connection.prepareStatement(sql);
+        } catch (SQLException e) {
+            throw new UnexpectedApplicationState("In prepareStatement for request : " + sql, e);
+        }
+        sqlValueVisitor = new SqlValueFieldVisitor(preparedStatement, blobUpdater);
+        prepareNanos = System.nanoTime() - start;
+    }
+
+    private String prepareRequest(int rowCount) {
+        StringPrettyWriter writer = new StringPrettyWriter();
+        writer.append("INSERT INTO ")
+              .append(sqlService.getTableName(globType))
+              .append(" (");
+        for (int i = 0; i < fields.length; i++) {
+            writer.appendIf(", ", i > 0);
+            writer.append(sqlService.getColumnName(fields[i]));
+        }
+        writer.append(") VALUES ");
+        for (int row = 0; row < rowCount; row++) {
+            writer.appendIf(", ", row > 0);
+            writer.append("(");
+            for (int i = 0; i < fields.length; i++) {
+                writer.append("?").appendIf(",", i < fields.length - 1);
+            }
+            writer.append(")");
+        }
+        return writer.toString();
+    }
+
+    public void run() throws SqlException {
+        if (multiRowInsert) {
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = accessors[i].getObjectValue();
+            }
+            rows.add(values);
+            if (rows.size() >= batchSize) {
+                executeMultiRow();
+            }
+        } else {
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    sqlValueVisitor.setValue(accessors[i].getObjectValue(), i + 1);
+                    fields[i].safeVisit(sqlValueVisitor);
+                }
+                preparedStatement.addBatch();
+            } catch (SQLException e) {
+                throw jdbcConnection.getTypedException(sql, e);
+            }
+            if (++pendingCount >= batchSize) {
+                executeBatch();
+            }
+        }
+    }
+
+    private void executeMultiRow() {
+        try {
+            long start = System.nanoTime();
+            if (multiRowStatement == null) {
+                multiRowSql = prepareRequest(batchSize);
+                multiRowStatement = connection.prepareStatement(multiRowSql);
+                multiRowValueVisitor = new SqlValueFieldVisitor(multiRowStatement, blobUpdater);
+                multiRowPrepareNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+            }
+            int index = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < fields.length; i++) {
+                    multiRowValueVisitor.setValue(row[i], ++index);
+                    fields[i].safeVisit(multiRowValueVisitor);
+                }
+            }
+            int count = multiRowStatement.executeUpdate();
+            jdbcConnection.getQueryListener().onStatement(QueryListener.Kind.CREATE, multiRowSql, multiRowPrepareNanos,
+                  System.nanoTime() - start, count, -1, this);
+            multiRowPrepareNanos = 0;
+        } catch (SQLException e) {
+            throw jdbcConnection.getTypedException(multiRowSql, e);
+        } finally {
+            rows.clear();
+        }
+    }
+
+    private void executeBatch() {
+        try {
+            long start = System.nanoTime();
+            int[] counts = preparedStatement.executeBatch();
+            jdbcConnection.getQueryListener().onStatement(QueryListener.Kind.CREATE, sql, prepareNanos,
+                  System.nanoTime() - start, JdbcConnection.getBatchCount(counts), -1, this);
+            prepareNanos = 0;
+        } catch (SQLException e) {
+            throw jdbcConnection.getTypedException(sql, e);
+        } finally {
+            pendingCount = 0;
+        }
+    }
+
+    public void flush() {
+        if (!rows.isEmpty()) {
+            try {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < fields.length; i++) {
+                        sqlValueVisitor.setValue(row[i], i + 1);
+                        fields[i].safeVisit(sqlValueVisitor);
+                    }
+                    preparedStatement.addBatch();
+                    pendingCount++;
+                }
+            } catch (SQLException e) {
+                throw jdbcConnection.getTypedException(sql, e);
+            } finally {
+                rows.clear();
+            }
+        }
+        if (pendingCount != 0) {
+            executeBatch();
+        }
+    }
+
+    public String getDriver() {
+        return JdbcConnection.getDriverName(connection);
+    }
+
+    // the rows of a multi row insert, the last row of a batch.
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        if (!rows.isEmpty()) {
+            for (Object[] row : rows) {
+                parameters.addAll(Arrays.asList(row));
+            }
+        } else {
+            for (Accessor accessor : accessors) {
+                parameters.add(accessor.getObjectValue());
+            }
+        }
+        return parameters;
+    }
+
+    public void close() {
+        try {
+            flush();
+        } finally {
+            try {
+                preparedStatement.close();
+                if (multiRowStatement != null) {
+                    multiRowStatement.close();
+                }
+            } catch (SQLException e) {
+                throw new UnexpectedApplicationState("In close", e);
+            }
+        }
+    }
+}
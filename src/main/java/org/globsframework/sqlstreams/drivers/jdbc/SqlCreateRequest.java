@@ -7,6 +7,7 @@ import org.globsframework.sqlstreams.SqlRequest;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.accessors.GeneratedKeyAccessor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlValueFieldVisitor;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.sqlstreams.utils.PrettyWriter;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.globsframework.streams.accessors.Accessor;
@@ -16,10 +17,11 @@ import org.globsframework.utils.exceptions.UnexpectedApplicationState;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class SqlCreateRequest implements SqlRequest {
+public class SqlCreateRequest implements SqlRequest, QueryListener.Details {
     private PreparedStatement preparedStatement;
     private List<Pair<Field, Accessor>> fields;
     private SqlValueFieldVisitor sqlValueVisitor;
@@ -27,6 +29,8 @@ public class SqlCreateRequest implements SqlRequest {
     private GlobType globType;
     private SqlService sqlService;
     private JdbcConnection jdbcConnection;
+    private String sql;
+    private long prepareNanos;
 
     public SqlCreateRequest(List<Pair<Field, Accessor>> fields, GeneratedKeyAccessor generatedKeyAccessor,
                             Connection connection,
@@ -36,7 +40,8 @@ public class SqlCreateRequest implements SqlRequest {
         this.globType = globType;
         this.sqlService = sqlService;
         this.jdbcConnection = jdbcConnection;
-        String sql = prepareRequest(fields, this.globType, new Value() {
+        long start = System.nanoTime();
+        sql = prepareRequest(fields, this.globType, new Value() {
             public String get(Pair<Field, Accessor> pair) {
                 return "?";
             }
@@ -47,6 +52,7 @@ public class SqlCreateRequest implements SqlRequest {
             throw new UnexpectedApplicationState("In prepareStatement for request : " + sql, e);
         }
         this.sqlValueVisitor = new SqlValueFieldVisitor(preparedStatement, blobUpdater);
+        prepareNanos = System.nanoTime() - start;
     }
 
     interface Value {
@@ -76,22 +82,38 @@ public class SqlCreateRequest implements SqlRequest {
 
     public void run() {
         try {
+            long start = System.nanoTime();
             int index = 0;
             for (Pair<Field, Accessor> pair : fields) {
                 Object value = pair.getSecond().getObjectValue();
                 sqlValueVisitor.setValue(value, ++index);
                 pair.getFirst().safeVisit(sqlValueVisitor);
             }
-            preparedStatement.executeUpdate();
+            int count = preparedStatement.executeUpdate();
             if (generatedKeyAccessor != null) {
                 generatedKeyAccessor.setResult(preparedStatement.getGeneratedKeys());
             }
+            jdbcConnection.getQueryListener().onStatement(QueryListener.Kind.CREATE, sql, prepareNanos,
+                  System.nanoTime() - start, count, -1, this);
+            prepareNanos = 0;
 //      Log.write(getDebugRequest());
         } catch (SQLException e) {
             throw jdbcConnection.getTypedException(getDebugRequest(), e);
         }
     }
 
+    public String getDriver() {
+        return JdbcConnection.getDriverName(jdbcConnection.getConnection());
+    }
+
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        for (Pair<Field, Accessor> pair : fields) {
+            parameters.add(pair.getSecond().getObjectValue());
+        }
+        return parameters;
+    }
+
     public void close() {
         try {
             preparedStatement.close();
@@ -10,8 +10,7 @@ import org.globsframework.utils.exceptions.UnexpectedApplicationState;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.time.LocalDate;
-import java.time.temporal.ChronoField;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
@@ -21,14 +20,22 @@ public class SqlGlobStream implements GlobStream {
     private int rowId = 0;
     private Map<Field, SqlAccessor> fieldToAccessorHolder;
     private SqlSelectQuery query;
+    private final boolean[] nullColumns;
+    private final int[] readRowIds;
+    private final ColumnReader[] readers;
 
-    public SqlGlobStream(ResultSet resultSet, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlSelectQuery query) {
+    public SqlGlobStream(ResultSet resultSet, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlSelectQuery query,
+                         ColumnReader[] readers) {
         this.resultSet = resultSet;
         this.fieldToAccessorHolder = fieldToAccessorHolder;
         this.query = query;
+        this.readers = readers;
         for (SqlAccessor sqlAccessor : fieldToAccessorHolder.values()) {
             sqlAccessor.setMoStream(this);
         }
+        nullColumns = new boolean[readers.length];
+        readRowIds = new int[readers.length];
+        Arrays.fill(readRowIds, -1);
     }
 
     public boolean next() {
@@ -48,7 +55,7 @@ public class SqlGlobStream implements GlobStream {
     public void close() {
         try {
             resultSet.close();
-            query.resultSetClose();
+            query.resultSetClose(rowId);
         } catch (SQLException e) {
             throw new UnexpectedApplicationState(e);
         }
@@ -64,29 +71,54 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Double getDouble(int index) {
+        double value = getDoubleValue(index);
+        return nullColumns[index] ? null : value;
+    }
+
+    // primitive read : no allocation. wasNull(index) give the null state of the last read of the column in the current row.
+    public int getIntValue(int index) {
         try {
-            double aDouble = resultSet.getDouble(index);
-            if (aDouble == 0 && resultSet.wasNull()) {
-                return null;
-            } else {
-                return aDouble;
-            }
-        } catch (SQLException ex) {
-            try {
-                Number number = ((Number) resultSet.getObject(index));
-                if (number == null) {
-                    return null;
-                }
-                if (number instanceof Double) {
-                    return (Double) number;
-                }
-                return number.doubleValue();
-            } catch (SQLException e) {
-                throw new UnexpectedApplicationState(e);
-            }
+            int value = readers[index].readInt(resultSet, index);
+            markRead(index, value == 0 && resultSet.wasNull());
+            return value;
+        } catch (SQLException e) {
+            throw columnException(index, e);
         }
     }
 
+    public long getLongValue(int index) {
+        try {
+            long value = readers[index].readLong(resultSet, index);
+            markRead(index, value == 0 && resultSet.wasNull());
+            return value;
+        } catch (SQLException e) {
+            throw columnException(index, e);
+        }
+    }
+
+    public double getDoubleValue(int index) {
+        try {
+            double value = readers[index].readDouble(resultSet, index);
+            markRead(index, value == 0 && resultSet.wasNull());
+            return value;
+        } catch (SQLException e) {
+            throw columnException(index, e);
+        }
+    }
+
+    public boolean isRead(int index) {
+        return readRowIds[index] == rowId;
+    }
+
+    public boolean wasNull(int index) {
+        return nullColumns[index];
+    }
+
+    private void markRead(int index, boolean isNull) {
+        nullColumns[index] = isNull;
+        readRowIds[index] = rowId;
+    }
+
     public Date getDate(int index) {
         try {
             return resultSet.getDate(index);
@@ -104,33 +136,17 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Integer getInteger(int index) {
+        int value = getIntValue(index);
+        return nullColumns[index] ? null : value;
+    }
+
+    private SqlException columnException(int index, SQLException e) {
+        String columnName = null;
         try {
-//            if (resultSet.wasNull()) {
-//                return null;
-//            }
-            Object object = resultSet.getObject(index);
-            if (object == null) {
-                return null;
-            }
-            if (object instanceof Number) {
-                Number number = (Number) object;
-                if (number instanceof Integer) {
-                    return (Integer) number;
-                }
-                return number.intValue();
-            } else if (object instanceof java.sql.Date) {
-                LocalDate ldt = ((java.sql.Date) object).toLocalDate();
-                return Math.toIntExact(ldt.getLong(ChronoField.EPOCH_DAY));
-            }
-            throw new RuntimeException("Can not convert " + object);
-        } catch (SQLException e) {
-            String columnName = null;
-            try {
-                columnName = resultSet.getMetaData().getColumnName(index);
-            } catch (SQLException e1) {
-            }
-            throw new SqlException("for " + columnName, e);
+            columnName = resultSet.getMetaData().getColumnName(index);
+        } catch (SQLException e1) {
         }
+        return new SqlException("for " + columnName, e);
     }
 
     public String getString(int index) {
@@ -170,11 +186,8 @@ public class SqlGlobStream implements GlobStream {
     }
 
     public Long getLong(int index) {
-        try {
-            return resultSet.getLong(index);
-        } catch (SQLException e) {
-            throw new SqlException(e);
-        }
+        long value = getLongValue(index);
+        return nullColumns[index] ? null : value;
     }
 
     public boolean isNull() {
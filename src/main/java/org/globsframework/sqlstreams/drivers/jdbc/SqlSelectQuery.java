@@ -1,155 +1,120 @@
 package org.globsframework.sqlstreams.drivers.jdbc;
 
 import org.globsframework.metamodel.Field;
-import org.globsframework.metamodel.GlobType;
 import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SelectQuery;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.accessors.SqlAccessor;
 import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.BoundValuesVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.ValueConstraintVisitor;
-import org.globsframework.sqlstreams.drivers.jdbc.impl.WhereClauseConstraintVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.request.SqlQueryBuilder;
-import org.globsframework.sqlstreams.utils.StringPrettyWriter;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.streams.GlobStream;
 import org.globsframework.utils.exceptions.ItemNotFound;
 import org.globsframework.utils.exceptions.TooManyItems;
 import org.globsframework.utils.exceptions.UnexpectedApplicationState;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class SqlSelectQuery implements SelectQuery {
-    private static final Logger LOGGER = LoggerFactory.getLogger(SqlSelectQuery.class);
-    private Set<GlobType> globTypes = new HashSet<GlobType>();
+public class SqlSelectQuery implements SelectQuery, QueryListener.Details {
     private Constraint constraint;
     private BlobUpdater blobUpdater;
     private boolean autoClose;
     private Map<Field, SqlAccessor> fieldToAccessorHolder;
     private SqlService sqlService;
-    private final List<SqlQueryBuilder.Order> orders;
-    private final int top;
-    private Set<Field> distinct;
+    private SqlStatementCache statementCache;
+    private Executor executor;
     private PreparedStatement preparedStatement;
     private String sql;
-    private boolean shouldInitAccessorWithMetadata;
+    private CompiledSelect compiledSelect;
+    private boolean indexUpdated;
+    private FetchStrategy fetchStrategy;
+    private int fetchSize;
+    private JdbcConnection jdbcConnection;
+    private QueryListener queryListener;
+    private long prepareNanos;
+    private long executeStart;
+    private final List<Object> parameters = new ArrayList<>();
+    private boolean executing;
 
-    public SqlSelectQuery(Connection connection, Constraint constraint,
+    public SqlSelectQuery(SqlStatementCache statementCache, CompiledSelectCache compiledSelectCache, Executor executor, Constraint constraint,
                           Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService,
                           BlobUpdater blobUpdater, boolean autoClose, List<SqlQueryBuilder.Order> orders, int top, Set<Field> distinct,
-                          String externalRequest) {
+                          FetchStrategy fetchStrategy, int fetchSize, String externalRequest, JdbcConnection jdbcConnection) {
+        long start = System.nanoTime();
         this.constraint = constraint;
         this.blobUpdater = blobUpdater;
         this.autoClose = autoClose;
         this.fieldToAccessorHolder = new HashMap<>(fieldToAccessorHolder);
         this.sqlService = sqlService;
-        this.orders = orders;
-        this.top = top;
-        this.distinct = distinct;
-        if (externalRequest == null) {
-            sql = prepareSqlRequest();
-        } else {
-            sql = externalRequest;
-        }
-        try {
-            this.preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            // ack => force mysql driver to not load all data
-            if (preparedStatement instanceof com.mysql.jdbc.PreparedStatement) {
-                ((com.mysql.jdbc.PreparedStatement) preparedStatement).enableStreamingResults();
+        this.statementCache = statementCache;
+        this.executor = executor;
+        Set<Field> fields = this.fieldToAccessorHolder.keySet();
+        List<Object> key = CompiledSelect.key(fields, constraint, orders, top, distinct, externalRequest);
+        compiledSelect = compiledSelectCache.get(key);
+        if (compiledSelect == null) {
+            if (externalRequest == null) {
+                compiledSelect = CompiledSelect.compile(fields, constraint, sqlService, orders, top, distinct);
+            } else {
+                compiledSelect = CompiledSelect.external(externalRequest);
             }
-        } catch (SQLException e) {
-            throw new UnexpectedApplicationState("for request " + sql, e);
+            compiledSelectCache.put(key, compiledSelect);
+        }
+        if (compiledSelect.isResolved()) {
+            compiledSelect.updateIndex(this.fieldToAccessorHolder);
+            indexUpdated = true;
         }
-        shouldInitAccessorWithMetadata = externalRequest != null;
+        sql = compiledSelect.getSql();
+        this.fetchStrategy = fetchStrategy;
+        this.fetchSize = fetchSize;
+        prepare(jdbcConnection, start);
     }
 
-    private void initIndexFromMetadata(ResultSetMetaData metaData, Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService) {
-        try {
-            int columnCount = metaData.getColumnCount();
-            for (int i = 1; i <= columnCount; i++) {
-                String columnName = metaData.getColumnName(i);
-                if (!updateSqlIndex(fieldToAccessorHolder, sqlService, i, columnName)) {
-                    LOGGER.warn("column " + columnName + " not found in type got " + fieldToAccessorHolder.keySet());
-                }
-            }
-        } catch (SQLException e) {
-            String msg = "Fail to analyse metadata of " + sql;
-            LOGGER.error(msg, e);
-            throw new RuntimeException(msg, e);
-        }
+    // the same query on an other connection.
+    private SqlSelectQuery(SqlSelectQuery query, JdbcConnection jdbcConnection) {
+        long start = System.nanoTime();
+        constraint = query.constraint;
+        blobUpdater = query.blobUpdater;
+        fieldToAccessorHolder = query.fieldToAccessorHolder;
+        sqlService = query.sqlService;
+        statementCache = jdbcConnection.getStatementCache();
+        executor = query.executor;
+        compiledSelect = query.compiledSelect;
+        indexUpdated = query.indexUpdated;
+        sql = query.sql;
+        fetchStrategy = query.fetchStrategy;
+        fetchSize = query.fetchSize;
+        prepare(jdbcConnection, start);
     }
 
-    private boolean updateSqlIndex(Map<Field, SqlAccessor> fieldToAccessorHolder, SqlService sqlService, int i, String columnName) {
-        for (Map.Entry<Field, SqlAccessor> fieldSqlAccessorEntry : fieldToAccessorHolder.entrySet()) {
-            if (sqlService.getColumnName(fieldSqlAccessorEntry.getKey()).equals(columnName)) {
-                fieldSqlAccessorEntry.getValue().setIndex(i);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String prepareSqlRequest() {
-        int index = 0;
-        StringPrettyWriter prettyWriter = new StringPrettyWriter();
-        prettyWriter.append("select ");
-        for (Iterator<Map.Entry<Field, SqlAccessor>> iterator = fieldToAccessorHolder.entrySet().iterator();
-             iterator.hasNext(); ) {
-            Map.Entry<Field, SqlAccessor> fieldAndAccessor = iterator.next();
-            fieldAndAccessor.getValue().setIndex(++index);
-            GlobType globType = fieldAndAccessor.getKey().getGlobType();
-            globTypes.add(globType);
-            String tableName = sqlService.getTableName(globType);
-            if (distinct.contains(fieldAndAccessor.getKey())) {
-                prettyWriter.append(" DISTINCT ");
-            }
-            prettyWriter.append(tableName)
-                    .append(".")
-                    .append(sqlService.getColumnName(fieldAndAccessor.getKey()))
-                    .appendIf(", ", iterator.hasNext());
-        }
-        StringPrettyWriter where = null;
-        if (constraint != null) {
-            where = new StringPrettyWriter();
-            where.append(" WHERE ");
-            constraint.visit(new WhereClauseConstraintVisitor(where, sqlService, globTypes));
-        }
-
-        prettyWriter.append(" from ");
-        for (Iterator it = globTypes.iterator(); it.hasNext(); ) {
-            GlobType globType = (GlobType) it.next();
-            prettyWriter.append(sqlService.getTableName(globType))
-                    .appendIf(", ", it.hasNext());
-        }
-        if (where != null) {
-            prettyWriter.append(where.toString());
-        }
-
-        if (!orders.isEmpty()) {
-            prettyWriter.append(" ORDER BY ");
-            for (SqlQueryBuilder.Order order : orders) {
-                prettyWriter.append(sqlService.getColumnName(order.field));
-                if (order.asc) {
-                    prettyWriter.append(" ASC");
-                } else {
-                    prettyWriter.append(" DESC");
-                }
-                prettyWriter.append(", ");
-            }
-            prettyWriter.removeLast().removeLast();
-        }
-        if (top != -1) {
-            prettyWriter.append(" LIMIT " + top);
+    private void prepare(JdbcConnection jdbcConnection, long start) {
+        try {
+            this.preparedStatement = statementCache.take(sql);
+            // always set : the statement may come from the cache with the fetch size of a previous query
+            jdbcConnection.applyFetchStrategy(preparedStatement, fetchStrategy, fetchSize);
+        } catch (SQLException e) {
+            throw new UnexpectedApplicationState("for request " + sql, e);
         }
-        return prettyWriter.toString();
+        this.jdbcConnection = jdbcConnection;
+        queryListener = jdbcConnection.getQueryListener();
+        prepareNanos = System.nanoTime() - start;
     }
 
-    public Stream<?> executeAsStream() {
-        throw new RuntimeException("Not implemented");
+    public Stream<Glob> executeAsStream() {
+        GlobStream globStream = execute();
+        AccessorGlobsBuilder accessorGlobsBuilder = AccessorGlobsBuilder.init(globStream);
+        return StreamSupport.stream(new GlobSpliterator(globStream, accessorGlobsBuilder), false)
+              .onClose(globStream::close);
     }
 
     public GlobStream execute() {
@@ -157,15 +122,26 @@ public class SqlSelectQuery implements SelectQuery {
             throw new UnexpectedApplicationState("Query closed " + sql);
         }
         try {
+            long start = System.nanoTime();
             if (constraint != null) {
                 constraint.visit(new ValueConstraintVisitor(preparedStatement, blobUpdater));
+                // the accessors may change while the rows are read : the values are kept as bound.
+                if (queryListener != QueryListener.NULL) {
+                    parameters.clear();
+                    BoundValuesVisitor.addValues(constraint, parameters);
+                }
             }
             ResultSet resultSet = preparedStatement.executeQuery();
-            if (shouldInitAccessorWithMetadata) {
-                initIndexFromMetadata(resultSet.getMetaData(), fieldToAccessorHolder, sqlService);
-                shouldInitAccessorWithMetadata = false;
+            executeStart = start;
+            executing = true;
+            if (!indexUpdated) {
+                if (!compiledSelect.isResolved()) {
+                    compiledSelect.resolve(resultSet.getMetaData(), fieldToAccessorHolder.keySet(), sqlService);
+                }
+                compiledSelect.updateIndex(fieldToAccessorHolder);
+                indexUpdated = true;
             }
-            return new SqlGlobStream(resultSet, fieldToAccessorHolder, this);
+            return new SqlGlobStream(resultSet, fieldToAccessorHolder, this, compiledSelect.getReaders(resultSet));
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("for request : " + sql, e);
         }
@@ -175,12 +151,71 @@ public class SqlSelectQuery implements SelectQuery {
         GlobStream globStream = execute();
         AccessorGlobsBuilder accessorGlobsBuilder = AccessorGlobsBuilder.init(globStream);
         GlobList result = new GlobList();
-        while (globStream.next()) {
-            result.addAll(accessorGlobsBuilder.getGlobs());
+        if (accessorGlobsBuilder.isSingleType()) {
+            while (globStream.next()) {
+                result.add(accessorGlobsBuilder.getGlob());
+            }
+        } else {
+            while (globStream.next()) {
+                accessorGlobsBuilder.addGlobs(result);
+            }
         }
         return result;
     }
 
+    // the future runs on a connection of its own : the connection of the query can be written, committed
+    // or closed meanwhile. It reads the committed data only.
+    public CompletableFuture<Void> executeAsFutureStream(Consumer<Glob> consumer) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        closeIfAutoClose();
+        executor.execute(() -> {
+            try {
+                onOwnConnection(query -> {
+                    try (Stream<Glob> stream = query.executeAsStream()) {
+                        Iterator<Glob> iterator = stream.iterator();
+                        while (!future.isDone() && iterator.hasNext()) {
+                            consumer.accept(iterator.next());
+                        }
+                    }
+                    return null;
+                });
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<GlobList> executeAsFutureGlobs() {
+        closeIfAutoClose();
+        return CompletableFuture.supplyAsync(() -> onOwnConnection(SqlSelectQuery::executeAsGlobs), executor);
+    }
+
+    private <T> T onOwnConnection(Function<SqlSelectQuery, T> function) {
+        JdbcConnection db = jdbcConnection.newConnection();
+        try {
+            SqlSelectQuery query = new SqlSelectQuery(this, db);
+            try {
+                return function.apply(query);
+            } finally {
+                query.close();
+            }
+        } finally {
+            db.rollbackAndClose();
+        }
+    }
+
+    // the statement of this query is not used by the futures.
+    private void closeIfAutoClose() {
+        if (preparedStatement == null) {
+            throw new UnexpectedApplicationState("Query closed " + sql);
+        }
+        if (autoClose) {
+            close();
+        }
+    }
+
     public Glob executeUnique() throws ItemNotFound, TooManyItems {
         GlobList globs = executeAsGlobs();
         if (globs.size() == 1) {
@@ -192,20 +227,60 @@ public class SqlSelectQuery implements SelectQuery {
         throw new TooManyItems("Too many results for: " + sql);
     }
 
-    public void resultSetClose() {
+    // rowCount : rows read from the result set ; the execute time includes the fetch of the rows.
+    public void resultSetClose(int rowCount) {
+        if (executing) {
+            executing = false;
+            queryListener.onStatement(QueryListener.Kind.SELECT, sql, prepareNanos, System.nanoTime() - executeStart, rowCount, -1, this);
+            prepareNanos = 0;
+        }
         if (autoClose) {
             close();
         }
     }
 
+    public String getDriver() {
+        return JdbcConnection.getDriverName(jdbcConnection.getConnection());
+    }
+
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
     public void close() {
         if (preparedStatement != null) {
-            try {
-                preparedStatement.close();
-                preparedStatement = null;
-            } catch (SQLException e) {
-                throw new UnexpectedApplicationState("PreparedStatement close fail", e);
+            statementCache.release(sql, preparedStatement);
+            preparedStatement = null;
+        }
+    }
+
+    private static class GlobSpliterator extends Spliterators.AbstractSpliterator<Glob> {
+        private final GlobStream globStream;
+        private final AccessorGlobsBuilder accessorGlobsBuilder;
+        private Iterator<Glob> current = Collections.emptyIterator();
+
+        GlobSpliterator(GlobStream globStream, AccessorGlobsBuilder accessorGlobsBuilder) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.globStream = globStream;
+            this.accessorGlobsBuilder = accessorGlobsBuilder;
+        }
+
+        public boolean tryAdvance(Consumer<? super Glob> action) {
+            if (accessorGlobsBuilder.isSingleType()) {
+                if (!globStream.next()) {
+                    return false;
+                }
+                action.accept(accessorGlobsBuilder.getGlob());
+                return true;
+            }
+            while (!current.hasNext()) {
+                if (!globStream.next()) {
+                    return false;
+                }
+                current = accessorGlobsBuilder.getGlobs().iterator();
             }
+            action.accept(current.next());
+            return true;
         }
     }
 }
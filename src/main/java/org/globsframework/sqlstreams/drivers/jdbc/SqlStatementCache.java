@@ -0,0 +1,83 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of select statements keyed on their sql text.
+ * A statement is removed from the cache while a query uses it, so two queries with the same shape
+ * opened at the same time never share a PreparedStatement.
+ */
+public class SqlStatementCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatementCache.class);
+    public static final int DEFAULT_SIZE = 64;
+    private final Connection connection;
+    private int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>() {
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > maxSize) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public SqlStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    synchronized public PreparedStatement take(String sql) throws SQLException {
+        PreparedStatement statement = statements.remove(sql);
+        if (statement != null) {
+            return statement;
+        }
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    synchronized public void release(String sql, PreparedStatement statement) {
+        if (maxSize <= 0) {
+            close(statement);
+            return;
+        }
+        PreparedStatement previous = statements.put(sql, statement);
+        if (previous != null && previous != statement) {
+            close(previous);
+        }
+    }
+
+    synchronized public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        while (statements.size() > Math.max(maxSize, 0)) {
+            String eldest = statements.keySet().iterator().next();
+            close(statements.remove(eldest));
+        }
+    }
+
+    synchronized public int size() {
+        return statements.size();
+    }
+
+    synchronized public void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            close(statement);
+        }
+        statements.clear();
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Fail to close cached statement", e);
+        }
+    }
+}
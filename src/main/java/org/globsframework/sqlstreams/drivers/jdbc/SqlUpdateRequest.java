@@ -3,13 +3,16 @@ package org.globsframework.sqlstreams.drivers.jdbc;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.model.Key;
-import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.BulkDbRequest;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.constraints.impl.KeyConstraint;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.BoundValuesVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlValueFieldVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.ValueConstraintVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.WhereClauseConstraintVisitor;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.globsframework.streams.accessors.Accessor;
 import org.globsframework.utils.exceptions.UnexpectedApplicationState;
@@ -19,7 +22,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
 
-public class SqlUpdateRequest implements SqlRequest {
+public class SqlUpdateRequest implements BulkDbRequest, QueryListener.Details {
     private GlobType globType;
     private Constraint constraint;
     private BlobUpdater blobUpdater;
@@ -28,14 +31,32 @@ public class SqlUpdateRequest implements SqlRequest {
     private PreparedStatement preparedStatement;
     private SqlValueFieldVisitor sqlValueFieldVisitor;
     private String sqlRequest;
+    private final int batchSize;
+    private int pendingCount;
+    private Connection connection;
+    private SqlUpdateRequest keyRequest;
+    private KeyConstraint keyConstraint;
+    private QueryListener queryListener;
+    private long prepareNanos;
 
     public SqlUpdateRequest(GlobType globType, Constraint constraint, Map<Field, Accessor> values,
-                            Connection connection, SqlService sqlService, BlobUpdater blobUpdater) {
+                            Connection connection, SqlService sqlService, BlobUpdater blobUpdater, QueryListener queryListener) {
+        this(globType, constraint, values, connection, sqlService, blobUpdater, queryListener, 0);
+    }
+
+    // batchSize > 0 : run() add to the jdbc batch, executed every batchSize rows and on flush.
+    public SqlUpdateRequest(GlobType globType, Constraint constraint, Map<Field, Accessor> values,
+                            Connection connection, SqlService sqlService, BlobUpdater blobUpdater, QueryListener queryListener,
+                            int batchSize) {
+        long start = System.nanoTime();
         this.globType = globType;
+        this.batchSize = batchSize;
         this.constraint = constraint;
         this.blobUpdater = blobUpdater;
         this.values = new HashMap<Field, Accessor>(values);
         this.sqlService = sqlService;
+        this.connection = connection;
+        this.queryListener = queryListener;
         sqlRequest = createRequest();
         try {
             preparedStatement = connection.prepareStatement(sqlRequest);
@@ -43,9 +64,11 @@ public class SqlUpdateRequest implements SqlRequest {
             throw new UnexpectedApplicationState("For request : " + sqlRequest, e);
         }
         sqlValueFieldVisitor = new SqlValueFieldVisitor(preparedStatement, blobUpdater);
+        prepareNanos = System.nanoTime() - start;
     }
 
     public void run() {
+        long start = System.nanoTime();
         int index = 0;
         for (Map.Entry<Field, Accessor> entry : values.entrySet()) {
             sqlValueFieldVisitor.setValue(entry.getValue().getObjectValue(), ++index);
@@ -53,29 +76,82 @@ public class SqlUpdateRequest implements SqlRequest {
         }
         constraint.visit(new ValueConstraintVisitor(preparedStatement, index, blobUpdater));
         try {
-            preparedStatement.executeUpdate();
+            if (batchSize > 0) {
+                preparedStatement.addBatch();
+                if (++pendingCount >= batchSize) {
+                    executeBatch();
+                }
+            } else {
+                int count = preparedStatement.executeUpdate();
+                queryListener.onStatement(QueryListener.Kind.UPDATE, sqlRequest, prepareNanos, System.nanoTime() - start, count, -1, this);
+                prepareNanos = 0;
+            }
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("For request : " + sqlRequest, e);
         }
     }
 
+    private void executeBatch() throws SQLException {
+        try {
+            long start = System.nanoTime();
+            int[] counts = preparedStatement.executeBatch();
+            queryListener.onStatement(QueryListener.Kind.UPDATE, sqlRequest, prepareNanos, System.nanoTime() - start,
+                  JdbcConnection.getBatchCount(counts), -1, this);
+            prepareNanos = 0;
+        } finally {
+            pendingCount = 0;
+        }
+    }
+
+    public void flush() {
+        if (keyRequest != null) {
+            keyRequest.flush();
+        }
+        if (pendingCount != 0) {
+            try {
+                executeBatch();
+            } catch (SQLException e) {
+                throw new UnexpectedApplicationState("For request : " + sqlRequest, e);
+            }
+        }
+    }
+
+    public String getDriver() {
+        return JdbcConnection.getDriverName(connection);
+    }
+
+    public List<Object> getParameters() {
+        List<Object> parameters = new ArrayList<>();
+        for (Accessor accessor : values.values()) {
+            parameters.add(accessor.getObjectValue());
+        }
+        return BoundValuesVisitor.addValues(constraint, parameters);
+    }
+
     public void close() {
         try {
-            preparedStatement.close();
-        } catch (SQLException e) {
-            throw new UnexpectedApplicationState("In close", e);
+            flush();
+        } finally {
+            try {
+                preparedStatement.close();
+                if (keyRequest != null) {
+                    keyRequest.close();
+                }
+            } catch (SQLException e) {
+                throw new UnexpectedApplicationState("In close", e);
+            }
         }
     }
 
+    // the key is added to the constraint of a second statement, prepared on first call.
     public void execute(Key key) {
-        GlobType globType = key.getGlobType();
-        Field[] list = globType.getKeyFields();
-        Constraint constraint = null;
-        for (Field field : list) {
-            constraint = Constraints.and(constraint, Constraints.equalsObject(field, key.getValue(field)));
+        if (keyRequest == null) {
+            keyConstraint = new KeyConstraint(globType);
+            keyRequest = new SqlUpdateRequest(globType, Constraints.and(constraint, Constraints.keyEquals(keyConstraint)),
+                  values, connection, sqlService, blobUpdater, queryListener, batchSize);
         }
-        this.constraint = Constraints.and(this.constraint, constraint);
-        run();
+        keyConstraint.setValue(key);
+        keyRequest.run();
     }
 
     private String createRequest() {
@@ -0,0 +1,94 @@
+package org.globsframework.sqlstreams.drivers.jdbc.impl;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.ConstraintVisitor;
+import org.globsframework.sqlstreams.constraints.OperandVisitor;
+import org.globsframework.sqlstreams.constraints.impl.*;
+
+import java.util.List;
+
+/**
+ * Collect the values ValueConstraintVisitor binds, in parameter order : used to describe a statement to a
+ * QueryListener, on the execution path only when a listener is set.
+ */
+public class BoundValuesVisitor implements ConstraintVisitor, OperandVisitor {
+    private final List<Object> values;
+
+    public BoundValuesVisitor(List<Object> values) {
+        this.values = values;
+    }
+
+    public static List<Object> addValues(Constraint constraint, List<Object> values) {
+        if (constraint != null) {
+            constraint.visit(new BoundValuesVisitor(values));
+        }
+        return values;
+    }
+
+    public void visitEqual(EqualConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitNotEqual(NotEqualConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    private void visitBinary(BinaryOperandConstraint operandConstraint) {
+        operandConstraint.getLeftOperand().visitOperand(this);
+        operandConstraint.getRightOperand().visitOperand(this);
+    }
+
+    private void visitBinary(BinaryConstraint constraint) {
+        constraint.getLeftConstraint().visit(this);
+        constraint.getRightConstraint().visit(this);
+    }
+
+    public void visitAnd(AndConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitOr(OrConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitLessThan(LessThanConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitBiggerThan(BiggerThanConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitStrictlyBiggerThan(StrictlyBiggerThanConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitStrictlyLesserThan(StrictlyLesserThanConstraint constraint) {
+        visitBinary(constraint);
+    }
+
+    public void visitIn(InConstraint inConstraint) {
+        values.addAll(inConstraint.getValues());
+    }
+
+    public void visitIsOrNotNull(NullOrNotConstraint constraint) {
+    }
+
+    public void visitNotIn(NotInConstraint constraint) {
+    }
+
+    public void visitContains(Field field, String value, boolean contains) {
+    }
+
+    public void visitValueOperand(ValueOperand value) {
+        values.add(value.getValue());
+    }
+
+    public void visitAccessorOperand(AccessorOperand accessorOperand) {
+        values.add(accessorOperand.getAccessor().getObjectValue());
+    }
+
+    public void visitFieldOperand(Field field) {
+    }
+}
@@ -0,0 +1,101 @@
+package org.globsframework.sqlstreams.drivers.jdbc.impl;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.sqlstreams.constraints.ConstraintVisitor;
+import org.globsframework.sqlstreams.constraints.OperandVisitor;
+import org.globsframework.sqlstreams.constraints.impl.*;
+
+import java.util.List;
+
+/**
+ * Collect everything in a constraint that changes the generated sql (operators, fields, in list sizes...)
+ * but not the bound values.
+ */
+public class ConstraintShapeVisitor implements ConstraintVisitor, OperandVisitor {
+    private static final String VALUE = "?";
+    private final List<Object> shape;
+
+    public ConstraintShapeVisitor(List<Object> shape) {
+        this.shape = shape;
+    }
+
+    public void visitEqual(EqualConstraint constraint) {
+        visitBinary(constraint, "=");
+    }
+
+    public void visitNotEqual(NotEqualConstraint constraint) {
+        visitBinary(constraint, "<>");
+    }
+
+    public void visitAnd(AndConstraint constraint) {
+        visitBinary(constraint, "AND");
+    }
+
+    public void visitOr(OrConstraint constraint) {
+        visitBinary(constraint, "OR");
+    }
+
+    public void visitLessThan(LessThanConstraint constraint) {
+        visitBinary(constraint, "<=");
+    }
+
+    public void visitBiggerThan(BiggerThanConstraint constraint) {
+        visitBinary(constraint, ">=");
+    }
+
+    public void visitStrictlyBiggerThan(StrictlyBiggerThanConstraint constraint) {
+        visitBinary(constraint, ">");
+    }
+
+    public void visitStrictlyLesserThan(StrictlyLesserThanConstraint constraint) {
+        visitBinary(constraint, "<");
+    }
+
+    public void visitIn(InConstraint constraint) {
+        shape.add("IN");
+        shape.add(constraint.getField());
+        shape.add(constraint.getValues().size());
+    }
+
+    public void visitIsOrNotNull(NullOrNotConstraint constraint) {
+        shape.add(constraint.checkNull() ? "IS NULL" : "IS NOT NULL");
+        shape.add(constraint.getField());
+    }
+
+    public void visitNotIn(NotInConstraint constraint) {
+        shape.add("NOT IN");
+        shape.add(constraint.getField());
+        shape.add(constraint.getValues().size());
+    }
+
+    public void visitContains(Field field, String value, boolean contains) {
+        // the value is written in the request
+        shape.add(contains ? "LIKE" : "NOT LIKE");
+        shape.add(field);
+        shape.add(value);
+    }
+
+    public void visitValueOperand(ValueOperand value) {
+        shape.add(VALUE);
+    }
+
+    public void visitAccessorOperand(AccessorOperand accessorOperand) {
+        shape.add(VALUE);
+    }
+
+    public void visitFieldOperand(Field field) {
+        shape.add(field);
+    }
+
+    private void visitBinary(BinaryOperandConstraint constraint, String operator) {
+        shape.add(operator);
+        constraint.getLeftOperand().visitOperand(this);
+        constraint.getRightOperand().visitOperand(this);
+    }
+
+    private void visitBinary(BinaryConstraint constraint, String operator) {
+        shape.add(operator);
+        constraint.getLeftConstraint().visit(this);
+        constraint.getRightConstraint().visit(this);
+    }
+}
@@ -10,6 +10,7 @@ import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.accessors.LongGeneratedKeyAccessor;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
 import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
+import org.globsframework.sqlstreams.drivers.jdbc.SqlBulkCreateRequest;
 import org.globsframework.sqlstreams.drivers.jdbc.SqlCreateRequest;
 import org.globsframework.sqlstreams.exceptions.SqlException;
 import org.globsframework.streams.accessors.*;
@@ -139,6 +140,15 @@ public class SqlCreateBuilder implements CreateBuilder {
     }
 
     public BulkDbRequest getBulkRequest() {
+        if (longGeneratedKeyAccessor != null) {
+            return getPerRowBulkRequest();
+        }
+        return new SqlBulkCreateRequest(fields, connection, globType, sqlService, blobUpdater, jdbcConnection,
+              jdbcConnection.getBulkBatchSize(), jdbcConnection.useMultiRowInsert());
+    }
+
+    // generated keys are read back after each insert : one statement per row, as before batching.
+    private BulkDbRequest getPerRowBulkRequest() {
         SqlRequest request = getRequest();
         return new BulkDbRequest() {
             public void flush() {
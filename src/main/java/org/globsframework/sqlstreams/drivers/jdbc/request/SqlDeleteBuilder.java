@@ -5,26 +5,37 @@ import org.globsframework.sqlstreams.SqlRequest;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
+import org.globsframework.sqlstreams.drivers.jdbc.impl.BoundValuesVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.ValueConstraintVisitor;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.WhereClauseConstraintVisitor;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 import org.globsframework.utils.exceptions.UnexpectedApplicationState;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 
-public class SqlDeleteBuilder implements SqlRequest {
+public class SqlDeleteBuilder implements SqlRequest, QueryListener.Details {
     private Constraint constraint;
     private BlobUpdater blobUpdater;
     private String sqlStatement;
+    private Connection connection;
     private PreparedStatement preparedStatement;
+    private QueryListener queryListener;
+    private long prepareNanos;
 
     public SqlDeleteBuilder(GlobType globType, Constraint constraint, Connection connection,
-                            SqlService sqlService, BlobUpdater blobUpdater) {
+                            SqlService sqlService, BlobUpdater blobUpdater, QueryListener queryListener) {
+        long start = System.nanoTime();
         this.constraint = constraint;
+        this.connection = connection;
+        this.queryListener = queryListener;
         this.blobUpdater = blobUpdater;
         StringPrettyWriter prettyWriter = new StringPrettyWriter();
         prettyWriter.append("DELETE ")
@@ -55,20 +66,31 @@ public class SqlDeleteBuilder implements SqlRequest {
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("For delete request " + sqlStatement, e);
         }
-
+        prepareNanos = System.nanoTime() - start;
     }
 
     public void run() {
+        long start = System.nanoTime();
         if (constraint != null) {
             constraint.visit(new ValueConstraintVisitor(preparedStatement, blobUpdater));
         }
         try {
-            preparedStatement.executeUpdate();
+            int count = preparedStatement.executeUpdate();
+            queryListener.onStatement(QueryListener.Kind.DELETE, sqlStatement, prepareNanos, System.nanoTime() - start, count, -1, this);
+            prepareNanos = 0;
         } catch (SQLException e) {
             throw new UnexpectedApplicationState("For delete request " + sqlStatement, e);
         }
     }
 
+    public String getDriver() {
+        return JdbcConnection.getDriverName(connection);
+    }
+
+    public List<Object> getParameters() {
+        return BoundValuesVisitor.addValues(constraint, new ArrayList<>());
+    }
+
     public void close() {
         try {
             preparedStatement.close();
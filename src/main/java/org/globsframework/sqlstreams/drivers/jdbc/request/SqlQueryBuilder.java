@@ -3,24 +3,31 @@ package org.globsframework.sqlstreams.drivers.jdbc.request;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SelectBuilder;
 import org.globsframework.sqlstreams.SelectQuery;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.accessors.*;
 import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
+import org.globsframework.sqlstreams.drivers.jdbc.CompiledSelectCache;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
 import org.globsframework.sqlstreams.drivers.jdbc.SqlSelectQuery;
+import org.globsframework.sqlstreams.drivers.jdbc.SqlStatementCache;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.FieldToSqlAccessorVisitor;
 import org.globsframework.sqlstreams.drivers.mongodb.MongoSelectBuilder;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.Ref;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class SqlQueryBuilder implements SelectBuilder {
-    private Connection connection;
+    private SqlStatementCache statementCache;
+    private CompiledSelectCache compiledSelectCache;
+    private Executor executor;
     private GlobType globType;
     private Constraint constraint;
     private SqlService sqlService;
@@ -30,7 +37,11 @@ public class SqlQueryBuilder implements SelectBuilder {
     private Map<Field, SqlAccessor> fieldToAccessorHolder = new HashMap<Field, SqlAccessor>();
     private final List<Order> orders = new ArrayList<>();
     private int top = -1;
+    private int fetchSize = 0;
+    private FetchStrategy fetchStrategy;
+    private JdbcConnection jdbcConnection;
     private Set<Field> distinct = new HashSet<>();
+    private FieldValues startAfter;
 
     public static class Order {
         public final Field field;
@@ -42,17 +53,24 @@ public class SqlQueryBuilder implements SelectBuilder {
         }
     }
 
-    public SqlQueryBuilder(Connection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater) {
-        this.connection = connection;
+    public SqlQueryBuilder(SqlStatementCache statementCache, CompiledSelectCache compiledSelectCache, Executor executor, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater,
+                           JdbcConnection jdbcConnection) {
+        this.jdbcConnection = jdbcConnection;
+        this.statementCache = statementCache;
+        this.compiledSelectCache = compiledSelectCache;
+        this.executor = executor;
         this.globType = globType;
         this.constraint = constraint;
         this.sqlService = sqlService;
         this.blobUpdater = blobUpdater;
     }
 
-    public SqlQueryBuilder(Connection connection, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater,
-                           String sqlRequest) {
-        this.connection = connection;
+    public SqlQueryBuilder(SqlStatementCache statementCache, CompiledSelectCache compiledSelectCache, Executor executor, GlobType globType, Constraint constraint, SqlService sqlService, BlobUpdater blobUpdater,
+                           String sqlRequest, JdbcConnection jdbcConnection) {
+        this.jdbcConnection = jdbcConnection;
+        this.statementCache = statementCache;
+        this.compiledSelectCache = compiledSelectCache;
+        this.executor = executor;
         this.globType = globType;
         this.constraint = constraint;
         this.sqlService = sqlService;
@@ -62,13 +80,22 @@ public class SqlQueryBuilder implements SelectBuilder {
 
     public SelectQuery getQuery() {
         try {
-            return new SqlSelectQuery(connection, constraint, fieldToAccessorHolder, sqlService, blobUpdater, autoClose, orders, top, distinct,
-                    sqlRequest);
+            return new SqlSelectQuery(statementCache, compiledSelectCache, executor, getConstraint(), fieldToAccessorHolder, sqlService, blobUpdater, autoClose, orders, top, distinct,
+                    fetchStrategy != null ? fetchStrategy : jdbcConnection.getDefaultFetchStrategy(),
+                    fetchSize > 0 ? fetchSize : jdbcConnection.getDefaultFetchSize(), sqlRequest, jdbcConnection);
         } finally {
             fieldToAccessorHolder.clear();
         }
     }
 
+    private Constraint getConstraint() {
+        if (startAfter == null) {
+            return constraint;
+        }
+        return Constraints.and(constraint, Constraints.startAfter(globType, orders, order -> order.field, order -> order.asc,
+                                                                  field -> new Order(field, true), startAfter));
+    }
+
     public SelectQuery getNotAutoCloseQuery() {
         autoClose = false;
         return getQuery();
@@ -140,6 +167,24 @@ public class SqlQueryBuilder implements SelectBuilder {
         return this;
     }
 
+    public SelectBuilder fetchSize(int n) {
+        fetchSize = n;
+        if (n > 0 && fetchStrategy == null) {
+            fetchStrategy = FetchStrategy.CURSOR;
+        }
+        return this;
+    }
+
+    public SelectBuilder fetchStrategy(FetchStrategy strategy) {
+        fetchStrategy = strategy;
+        return this;
+    }
+
+    public SelectBuilder startAfter(FieldValues lastValues) {
+        startAfter = lastValues;
+        return this;
+    }
+
     public SelectBuilder distinct(Collection<Field> fields) {
         this.distinct.addAll(fields);
         return this;
@@ -3,11 +3,13 @@ package org.globsframework.sqlstreams.drivers.jdbc.request;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.sqlstreams.BulkDbRequest;
 import org.globsframework.sqlstreams.SqlRequest;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.UpdateBuilder;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
 import org.globsframework.sqlstreams.drivers.jdbc.SqlUpdateRequest;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.streams.accessors.utils.*;
@@ -23,10 +25,12 @@ public class SqlUpdateBuilder implements UpdateBuilder {
     private SqlService sqlService;
     private Constraint constraint;
     private BlobUpdater blobUpdater;
+    private JdbcConnection jdbcConnection;
 
     public SqlUpdateBuilder(Connection connection, GlobType globType, SqlService sqlService,
-                            Constraint constraint, BlobUpdater blobUpdater) {
+                            Constraint constraint, BlobUpdater blobUpdater, JdbcConnection jdbcConnection) {
         this.blobUpdater = blobUpdater;
+        this.jdbcConnection = jdbcConnection;
         this.connection = connection;
         this.globType = globType;
         this.sqlService = sqlService;
@@ -124,7 +128,17 @@ public class SqlUpdateBuilder implements UpdateBuilder {
 
     public SqlRequest getRequest() {
         try {
-            return new SqlUpdateRequest(globType, constraint, values, connection, sqlService, blobUpdater);
+            return new SqlUpdateRequest(globType, constraint, values, connection, sqlService, blobUpdater,
+                  jdbcConnection.getQueryListener());
+        } finally {
+            values.clear();
+        }
+    }
+
+    public BulkDbRequest getBulkRequest() {
+        try {
+            return new SqlUpdateRequest(globType, constraint, values, connection, sqlService, blobUpdater,
+                  jdbcConnection.getQueryListener(), Math.max(1, jdbcConnection.getBulkBatchSize()));
         } finally {
             values.clear();
         }
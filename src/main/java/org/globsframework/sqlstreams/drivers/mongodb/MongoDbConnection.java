@@ -2,27 +2,40 @@ package org.globsframework.sqlstreams.drivers.mongodb;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
+import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
 import org.globsframework.sqlstreams.*;
 import org.globsframework.sqlstreams.annotations.DbRef;
 import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.exceptions.DbConstraintViolation;
 import org.globsframework.sqlstreams.exceptions.RollbackFailed;
 import org.globsframework.sqlstreams.exceptions.SqlException;
+import org.globsframework.sqlstreams.metrics.QueryListener;
+import org.globsframework.sqlstreams.utils.KeyChunks;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.streams.accessors.utils.*;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 public class MongoDbConnection implements SqlConnection {
@@ -62,6 +75,101 @@ public class MongoDbConnection implements SqlConnection {
         throw new RuntimeException("Not Implemented");
     }
 
+    public void deleteByKeys(Collection<Key> keys) {
+        for (Map.Entry<GlobType, List<List<Key>>> entry : KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).entrySet()) {
+            MongoCollection<Document> collection = mongoDatabase.getCollection(sqlService.getTableName(entry.getKey()));
+            for (List<Key> chunk : entry.getValue()) {
+                Bson filter = getFilter(chunk);
+                long start = System.nanoTime();
+                DeleteResult result = collection.deleteMany(filter);
+                QueryListener queryListener = sqlService.getQueryListener();
+                if (queryListener != QueryListener.NULL) {
+                    queryListener.onStatement(QueryListener.Kind.DELETE, MongoUtils.getShape("delete", collection, filter),
+                          0, System.nanoTime() - start, result.wasAcknowledged() ? result.getDeletedCount() : chunk.size(), -1,
+                          MongoUtils.getDetails(collection, filter));
+                }
+            }
+        }
+    }
+
+    // chunks ('$in' on the key) are read in parallel.
+    public Map<Key, Glob> getByKeys(GlobType globType, Collection<Key> keys, Field... fields) {
+        Map<Key, Glob> result = new HashMap<>();
+        List<List<Key>> chunks = KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).remove(globType);
+        if (chunks == null) {
+            return result;
+        }
+        List<CompletableFuture<GlobList>> futures = new ArrayList<>();
+        for (List<Key> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                SelectBuilder selectBuilder = getQueryBuilder(globType, Constraints.keysIn(chunk));
+                if (fields.length == 0) {
+                    selectBuilder.selectAll();
+                } else {
+                    selectBuilder.withKeys();
+                    for (Field field : fields) {
+                        selectBuilder.select(field);
+                    }
+                }
+                return selectBuilder.getQuery().executeAsGlobs();
+            }, sqlService.getExecutor()));
+        }
+        try {
+            for (CompletableFuture<GlobList> future : futures) {
+                for (Glob glob : future.join()) {
+                    result.put(glob.getKey(), glob);
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    public void updateByKeys(Collection<Key> keys, FieldValues values) {
+        List<Bson> updates = new ArrayList<>();
+        values.safeApply((field, value) -> {
+            if (field.isKeyField()) {
+                return;
+            }
+            if (value == null) {
+                updates.add(Updates.unset(MongoUtils.getFullDbName(field)));
+            } else if (field.hasAnnotation(DbRef.KEY)) {
+                updates.add(Updates.set(MongoUtils.getDbName(field),
+                      new Document(MongoUtils.DB_REF_ID_EXT, new ObjectId((String) value))));
+            } else {
+                updates.add(Updates.set(MongoUtils.getFullDbName(field), value));
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        Bson update = Updates.combine(updates);
+        for (Map.Entry<GlobType, List<List<Key>>> entry : KeyChunks.split(keys, KeyChunks.DEFAULT_MAX_PARAMETERS).entrySet()) {
+            MongoCollection<Document> collection = mongoDatabase.getCollection(sqlService.getTableName(entry.getKey()));
+            for (List<Key> chunk : entry.getValue()) {
+                Bson filter = getFilter(chunk);
+                long start = System.nanoTime();
+                UpdateResult result = collection.updateMany(filter, update);
+                QueryListener queryListener = sqlService.getQueryListener();
+                if (queryListener != QueryListener.NULL) {
+                    queryListener.onStatement(QueryListener.Kind.UPDATE, MongoUtils.getShape("update", collection, filter),
+                          0, System.nanoTime() - start, result.wasAcknowledged() ? result.getModifiedCount() : chunk.size(), -1,
+                          MongoUtils.getDetails(collection, filter));
+                }
+            }
+        }
+    }
+
+    private Bson getFilter(List<Key> keys) {
+        MongoSelectQuery.MongoConstraintVisitor visitor = new MongoSelectQuery.MongoConstraintVisitor(sqlService);
+        Constraints.keysIn(keys).visit(visitor);
+        return visitor.filter;
+    }
+
     public void commit() throws RollbackFailed, DbConstraintViolation {
     }
 
@@ -239,7 +347,9 @@ public class MongoDbConnection implements SqlConnection {
                 }
 
                 if (++count <= 2 || bulk) {
+                    long start = System.nanoTime();
                     collection.insertOne(doc);
+                    report(start, Collections.singletonList(doc));
                 } else {
                     if (docs == null) {
                         docs = new ArrayList<>(100);
@@ -258,14 +368,14 @@ public class MongoDbConnection implements SqlConnection {
                             docs = null;
                             completableFuture = completableFuture.
                                   thenApply(ok -> {
-                                      collection.insertMany(toInsert);
+                                      insertMany(toInsert);
                                       return true;
                                   });
                         } else {
                             final List<Document> toInsert = docs;
                             docs = null;
                             completableFuture = CompletableFuture.supplyAsync(() -> {
-                                collection.insertMany(toInsert);
+                                insertMany(toInsert);
                                 return Boolean.TRUE;
                             }, sqlService.getExecutor());
                         }
@@ -277,7 +387,7 @@ public class MongoDbConnection implements SqlConnection {
                 if (completableFuture != null) {
                     if (docs != null && !docs.isEmpty()) {
                         completableFuture = completableFuture.thenApply(ok -> {
-                            collection.insertMany(docs);
+                            insertMany(docs);
                             return true;
                         });
                     }
@@ -291,11 +401,26 @@ public class MongoDbConnection implements SqlConnection {
                 }
                 else {
                     if (docs != null && !docs.isEmpty()) {
-                        collection.insertMany(docs);
+                        insertMany(docs);
                     }
                 }
             }
 
+            private void insertMany(List<Document> toInsert) {
+                long start = System.nanoTime();
+                collection.insertMany(toInsert);
+                report(start, toInsert);
+            }
+
+            private void report(long start, List<Document> inserted) {
+                QueryListener queryListener = sqlService.getQueryListener();
+                if (queryListener != QueryListener.NULL) {
+                    queryListener.onStatement(QueryListener.Kind.CREATE,
+                          "insert " + collection.getNamespace().getCollectionName(), 0, System.nanoTime() - start,
+                          inserted.size(), -1, MongoUtils.getDetails(inserted));
+                }
+            }
+
             public void flush() {
                 close();
             }
@@ -6,12 +6,8 @@ import org.globsframework.metamodel.GlobType;
 import org.globsframework.sqlstreams.SqlConnection;
 import org.globsframework.sqlstreams.utils.AbstractSqlService;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-
 public class MongoDbService extends AbstractSqlService {
     private final MongoDatabase database;
-    private final Executor executor = Executors.newCachedThreadPool();
 
     public MongoDbService(MongoDatabase database) {
         this.database = database;
@@ -28,8 +24,4 @@ public class MongoDbService extends AbstractSqlService {
     public String getFirstLevelColumnName(Field field) {
         return MongoUtils.getDbName(field);
     }
-
-    public Executor getExecutor() {
-        return executor;
-    }
 }
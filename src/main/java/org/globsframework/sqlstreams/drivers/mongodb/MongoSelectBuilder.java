@@ -6,12 +6,15 @@ import org.bson.Document;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
+import org.globsframework.model.FieldValues;
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SelectBuilder;
 import org.globsframework.sqlstreams.SelectQuery;
 import org.globsframework.sqlstreams.annotations.DbRef;
 import org.globsframework.sqlstreams.annotations.IsBigDecimal;
 import org.globsframework.sqlstreams.annotations.IsDbKey;
 import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.drivers.mongodb.accessor.*;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.Ref;
@@ -36,6 +39,9 @@ public class MongoSelectBuilder implements SelectBuilder {
     private final Ref<Document> currentDoc = new Ref<>();
     private final List<Order> orders = new ArrayList<>();
     private int top = -1;
+    private int fetchSize = 0;
+    private FetchStrategy fetchStrategy;
+    private FieldValues startAfter;
 
     static class Order {
         public final Field field;
@@ -56,7 +62,27 @@ public class MongoSelectBuilder implements SelectBuilder {
     }
 
     public SelectQuery getQuery() {
-        return new MongoSelectQuery(collection, fieldsAndAccessor, currentDoc, globType, sqlService, constraint, orders, top);
+        return new MongoSelectQuery(collection, fieldsAndAccessor, currentDoc, globType, sqlService, getConstraint(), orders, top, getBatchSize(), sqlService.getExecutor(),
+              sqlService.getQueryListener());
+    }
+
+    // mongo always use a cursor : BUFFERED keep the driver batch size.
+    private int getBatchSize() {
+        if (fetchStrategy == FetchStrategy.STREAMING) {
+            return 1;
+        }
+        if (fetchStrategy == FetchStrategy.BUFFERED) {
+            return 0;
+        }
+        return fetchSize;
+    }
+
+    private Constraint getConstraint() {
+        if (startAfter == null) {
+            return constraint;
+        }
+        return Constraints.and(constraint, Constraints.startAfter(globType, orders, order -> order.field, order -> order.asc,
+                                                                  field -> new Order(field, true), startAfter));
     }
 
     public SelectQuery getNotAutoCloseQuery() {
@@ -118,6 +144,21 @@ public class MongoSelectBuilder implements SelectBuilder {
         return this;
     }
 
+    public SelectBuilder fetchSize(int n) {
+        fetchSize = n;
+        return this;
+    }
+
+    public SelectBuilder fetchStrategy(FetchStrategy strategy) {
+        fetchStrategy = strategy;
+        return this;
+    }
+
+    public SelectBuilder startAfter(FieldValues lastValues) {
+        startAfter = lastValues;
+        return this;
+    }
+
     public SelectBuilder withKeys() {
         completeWithKeys();
         return this;
@@ -21,6 +21,7 @@ import org.globsframework.sqlstreams.constraints.ConstraintVisitor;
 import org.globsframework.sqlstreams.constraints.OperandVisitor;
 import org.globsframework.sqlstreams.constraints.impl.*;
 import org.globsframework.sqlstreams.drivers.jdbc.AccessorGlobsBuilder;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.streams.GlobStream;
 import org.globsframework.streams.accessors.Accessor;
 import org.globsframework.utils.Ref;
@@ -30,6 +31,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -50,10 +55,14 @@ public class MongoSelectQuery implements SelectQuery {
     private Constraint constraint;
     private final List<MongoSelectBuilder.Order> orders;
     private final int top;
+    private final int fetchSize;
+    private final Executor executor;
+    private final QueryListener queryListener;
 
     public MongoSelectQuery(MongoCollection<Document> collection, Map<Field, Accessor> fieldsAndAccessor,
                             Ref<Document> currentDoc, GlobType globType, SqlService sqlService, Constraint constraint,
-                            List<MongoSelectBuilder.Order> orders, int top) {
+                            List<MongoSelectBuilder.Order> orders, int top, int fetchSize, Executor executor,
+                            QueryListener queryListener) {
         this.collection = collection;
         this.fieldsAndAccessor = fieldsAndAccessor;
         this.currentDoc = currentDoc;
@@ -63,6 +72,9 @@ public class MongoSelectQuery implements SelectQuery {
         this.constraint = constraint;
         this.orders = orders;
         this.top = top;
+        this.fetchSize = fetchSize;
+        this.executor = executor;
+        this.queryListener = queryListener;
     }
 
     public Stream<?> executeAsStream() {
@@ -71,6 +83,7 @@ public class MongoSelectQuery implements SelectQuery {
     }
 
     private DocumentsIterator getDocumentsIterator() {
+        long start = System.nanoTime();
         Bson filter;
         if (constraint != null) {
             MongoConstraintVisitor constraintVisitor = new MongoConstraintVisitor(sqlService);
@@ -80,11 +93,13 @@ public class MongoSelectQuery implements SelectQuery {
             filter = new Document();
         }
 
-        lastFullRequest = request + " where " + filter.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+        BsonDocument filterDocument = filter.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+        lastFullRequest = request + " where " + filterDocument;
 
-        if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("Request filter : " + lastFullRequest);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Request filter : " + lastFullRequest);
         }
+        String shape = queryListener != QueryListener.NULL ? MongoUtils.getShape("find", collection, filterDocument) : null;
         Bson include = include(fieldsAndAccessor.keySet()
               .stream()
               .map(sqlService::getColumnName).collect(Collectors.toList()));
@@ -99,15 +114,23 @@ public class MongoSelectQuery implements SelectQuery {
                     bsonOrders.add(Sorts.descending(sqlService.getColumnName(order.field)));
                 }
             }
-            findIterable.sort(Sorts.orderBy(bsonOrders));
+            Bson sort = Sorts.orderBy(bsonOrders);
+            findIterable.sort(sort);
+            if (shape != null) {
+                shape += " sort " + sort.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+            }
         }
         if (top != -1) {
             findIterable.limit(top);
         }
-        MongoCursor<Document> iterator = findIterable
-              .projection(include)
-              .iterator();
-        return new DocumentsIterator(currentDoc, iterator, lastFullRequest);
+        if (fetchSize > 0) {
+            findIterable.batchSize(fetchSize);
+        }
+        findIterable.projection(include);
+        long prepareNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        MongoCursor<Document> iterator = findIterable.iterator();
+        return new DocumentsIterator(currentDoc, iterator, lastFullRequest, queryListener, shape, prepareNanos, start);
     }
 
     public GlobStream execute() {
@@ -139,13 +162,46 @@ public class MongoSelectQuery implements SelectQuery {
         GlobStream globStream = execute();
         AccessorGlobsBuilder accessorGlobsBuilder = AccessorGlobsBuilder.init(globStream);
         GlobList result = new GlobList();
-        while (globStream.next()) {
-            result.addAll(accessorGlobsBuilder.getGlobs());
+        if (accessorGlobsBuilder.isSingleType()) {
+            while (globStream.next()) {
+                result.add(accessorGlobsBuilder.getGlob());
+            }
+        } else {
+            while (globStream.next()) {
+                accessorGlobsBuilder.addGlobs(result);
+            }
         }
         globStream.close();
         return result;
     }
 
+    public CompletableFuture<Void> executeAsFutureStream(Consumer<Glob> consumer) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                GlobStream globStream = execute();
+                try {
+                    AccessorGlobsBuilder accessorGlobsBuilder = AccessorGlobsBuilder.init(globStream);
+                    while (!future.isDone() && globStream.next()) {
+                        for (Glob glob : accessorGlobsBuilder.getGlobs()) {
+                            consumer.accept(glob);
+                        }
+                    }
+                } finally {
+                    globStream.close();
+                }
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<GlobList> executeAsFutureGlobs() {
+        return CompletableFuture.supplyAsync(this::executeAsGlobs, executor);
+    }
+
     public Glob executeUnique() throws ItemNotFound, TooManyItems {
         GlobList globs = executeAsGlobs();
         if (globs.size() == 1) {
@@ -160,24 +216,40 @@ public class MongoSelectQuery implements SelectQuery {
     public void close() {
     }
 
-    private static class DocumentsIterator implements Iterator<Object> {
+    private static class DocumentsIterator implements Iterator<Object>, QueryListener.Details {
         private Ref<Document> currentDoc;
         private MongoCursor<Document> iterator;
         private String lastFullRequest;
-
-        public DocumentsIterator(Ref<Document> currentDoc, MongoCursor<Document> iterator, String lastFullRequest) {
+        private QueryListener queryListener;
+        private String shape;
+        private long prepareNanos;
+        private long executeStart;
+        private long count;
+        private boolean reported;
+
+        public DocumentsIterator(Ref<Document> currentDoc, MongoCursor<Document> iterator, String lastFullRequest,
+                                 QueryListener queryListener, String shape, long prepareNanos, long executeStart) {
             this.currentDoc = currentDoc;
             this.iterator = iterator;
             this.lastFullRequest = lastFullRequest;
+            this.queryListener = queryListener;
+            this.shape = shape;
+            this.prepareNanos = prepareNanos;
+            this.executeStart = executeStart;
         }
 
         public boolean hasNext() {
-            return iterator.hasNext();
+            boolean hasNext = iterator.hasNext();
+            if (!hasNext) {
+                report();
+            }
+            return hasNext;
         }
 
         public Object next() {
             Document next = iterator.next();
             currentDoc.set(next);
+            count++;
             return next;
         }
 
@@ -185,10 +257,26 @@ public class MongoSelectQuery implements SelectQuery {
             if (iterator.hasNext()) {
                 LOGGER.warn("All data not read : for " + lastFullRequest);
             }
+            report();
+        }
+
+        public String getDriver() {
+            return "mongodb";
+        }
+
+        public List<Object> getParameters() {
+            return Collections.singletonList(lastFullRequest);
+        }
+
+        private void report() {
+            if (!reported && queryListener != QueryListener.NULL) {
+                reported = true;
+                queryListener.onStatement(QueryListener.Kind.SELECT, shape, prepareNanos, System.nanoTime() - executeStart, count, -1, this);
+            }
         }
     }
 
-    private static class MongoConstraintVisitor implements ConstraintVisitor {
+    static class MongoConstraintVisitor implements ConstraintVisitor {
 
         private SqlService sqlService;
         public Bson filter;
@@ -262,30 +350,36 @@ public class MongoSelectQuery implements SelectQuery {
         }
 
         public void visitLessThan(LessThanConstraint constraint) {
-            ExtractOperandVisitor leftOp = new ExtractOperandVisitor();
-            constraint.getLeftOperand().visitOperand(leftOp);
-            ExtractOperandVisitor rightOp = new ExtractOperandVisitor();
-            constraint.getRightOperand().visitOperand(rightOp);
-
-            if (leftOp.field != null && rightOp.field == null) {
-                filter = Filters.lte(sqlService.getColumnName(leftOp.field), adaptData(leftOp.field, rightOp.value));
-            } else if (rightOp.field != null && leftOp.field == null) {
-                filter = Filters.gt(sqlService.getColumnName(rightOp.field), adaptData(rightOp.field, leftOp.value));
-            } else {
-                throw new RuntimeException("Can only call equal between field and value");
-            }
+            visitCompare(constraint, Filters::lte, Filters::gte);
         }
 
         public void visitBiggerThan(BiggerThanConstraint constraint) {
-            throw new RuntimeException("Not implemented");
+            visitCompare(constraint, Filters::gte, Filters::lte);
         }
 
         public void visitStrictlyBiggerThan(StrictlyBiggerThanConstraint constraint) {
-            throw new RuntimeException("Not implemented");
+            visitCompare(constraint, Filters::gt, Filters::lt);
         }
 
         public void visitStrictlyLesserThan(StrictlyLesserThanConstraint constraint) {
-            throw new RuntimeException("Not implemented");
+            visitCompare(constraint, Filters::lt, Filters::gt);
+        }
+
+        // fieldFirst for 'field op value', valueFirst for 'value op field'
+        private void visitCompare(BinaryOperandConstraint constraint, BiFunction<String, Object, Bson> fieldFirst,
+                                  BiFunction<String, Object, Bson> valueFirst) {
+            ExtractOperandVisitor leftOp = new ExtractOperandVisitor();
+            constraint.getLeftOperand().visitOperand(leftOp);
+            ExtractOperandVisitor rightOp = new ExtractOperandVisitor();
+            constraint.getRightOperand().visitOperand(rightOp);
+
+            if (leftOp.field != null && rightOp.field == null) {
+                filter = fieldFirst.apply(sqlService.getColumnName(leftOp.field), adaptData(leftOp.field, rightOp.value));
+            } else if (rightOp.field != null && leftOp.field == null) {
+                filter = valueFirst.apply(sqlService.getColumnName(rightOp.field), adaptData(rightOp.field, leftOp.value));
+            } else {
+                throw new RuntimeException("Can only compare field and value");
+            }
         }
 
         public void visitIn(InConstraint constraint) {
@@ -2,7 +2,11 @@ package org.globsframework.sqlstreams.drivers.mongodb;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.IndexOptions;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.globsframework.metamodel.Field;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.fields.*;
@@ -15,6 +19,7 @@ import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.annotations.DbFieldName;
 import org.globsframework.sqlstreams.annotations.DbRef;
 import org.globsframework.sqlstreams.annotations.IsDbKey;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.streams.accessors.*;
 import org.globsframework.utils.Ref;
 import org.globsframework.utils.collections.MultiMap;
@@ -23,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -83,6 +89,74 @@ public class MongoUtils {
         }
     }
 
+    // operation, collection and filter with its values replaced by '?' : requests differing only by their values
+    // have the same shape.
+    public static String getShape(String operation, MongoCollection<?> collection, Bson filter) {
+        StringBuilder builder = new StringBuilder(operation)
+              .append(' ')
+              .append(collection.getNamespace().getCollectionName())
+              .append(' ');
+        appendShape(builder, filter.toBsonDocument(BsonDocument.class, collection.getCodecRegistry()));
+        return builder.toString();
+    }
+
+    // rendered only if a listener asks for them.
+    public static QueryListener.Details getDetails(MongoCollection<?> collection, Bson filter) {
+        return new QueryListener.Details() {
+            public String getDriver() {
+                return "mongodb";
+            }
+
+            public List<Object> getParameters() {
+                return Collections.singletonList(filter.toBsonDocument(BsonDocument.class, collection.getCodecRegistry()).toJson());
+            }
+        };
+    }
+
+    public static QueryListener.Details getDetails(List<Document> docs) {
+        return new QueryListener.Details() {
+            public String getDriver() {
+                return "mongodb";
+            }
+
+            public List<Object> getParameters() {
+                List<Object> parameters = new ArrayList<>(docs.size());
+                for (Document doc : docs) {
+                    parameters.add(doc.toJson());
+                }
+                return parameters;
+            }
+        };
+    }
+
+    private static void appendShape(StringBuilder builder, BsonValue value) {
+        if (value.isDocument()) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                builder.append(first ? "" : ", ").append(entry.getKey()).append(": ");
+                appendShape(builder, entry.getValue());
+                first = false;
+            }
+            builder.append('}');
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // $and/$or keep their conditions, value lists ($in) are collapsed.
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                builder.append('[');
+                for (int i = 0; i < array.size(); i++) {
+                    builder.append(i == 0 ? "" : ", ");
+                    appendShape(builder, array.get(i));
+                }
+                builder.append(']');
+            } else {
+                builder.append("[?]");
+            }
+        } else {
+            builder.append('?');
+        }
+    }
+
     public static String getIdFromRef(Document unNormalized, String idField) {
         Document document = unNormalized.get(idField, Document.class);
         if (document == null) {
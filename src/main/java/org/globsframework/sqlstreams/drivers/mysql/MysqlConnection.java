@@ -1,9 +1,11 @@
 package org.globsframework.sqlstreams.drivers.mysql;
 
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.drivers.jdbc.BlobUpdater;
 import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
 import org.globsframework.sqlstreams.drivers.jdbc.impl.SqlFieldCreationVisitor;
+import org.globsframework.sqlstreams.metrics.QueryListener;
 import org.globsframework.sqlstreams.utils.StringPrettyWriter;
 
 import java.sql.Connection;
@@ -29,6 +31,28 @@ public class MysqlConnection extends JdbcConnection {
 
     }
 
+    protected FetchStrategy getDriverFetchStrategy() {
+        return FetchStrategy.STREAMING;
+    }
+
+    // CURSOR need useCursorFetch=true in the url, the driver load all the rows otherwise.
+    public void applyFetchStrategy(PreparedStatement preparedStatement, FetchStrategy fetchStrategy, int fetchSize) throws SQLException {
+        if (fetchStrategy == FetchStrategy.STREAMING) {
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            super.applyFetchStrategy(preparedStatement, fetchStrategy, fetchSize);
+        }
+    }
+
+    protected boolean supportMultiRowInsert() {
+        return true;
+    }
+
+    // EXPLAIN on update/delete need mysql 5.6.
+    protected String getExplainSql(QueryListener.Kind kind, String sql) {
+        return kind == QueryListener.Kind.CREATE ? null : "EXPLAIN " + sql;
+    }
+
     protected boolean isRollbackSQLState(SQLException e) {
         return e.getErrorCode() == 1099 && "HY000".equals(e.getSQLState());
     }
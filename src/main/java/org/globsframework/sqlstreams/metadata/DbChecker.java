@@ -1,13 +1,18 @@
 package org.globsframework.sqlstreams.metadata;
 
 import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.index.Index;
+import org.globsframework.metamodel.index.impl.IsUniqueIndexVisitor;
 import org.globsframework.sqlstreams.SqlConnection;
 import org.globsframework.sqlstreams.SqlService;
+import org.globsframework.sqlstreams.annotations.DbIndex;
 import org.globsframework.utils.exceptions.InvalidData;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class DbChecker {
     private DatabaseMetaData metaData;
@@ -41,4 +46,77 @@ public class DbChecker {
         }
         return false;
     }
+
+    // an index of the db match if it has the same columns in the same order ; a unique index match a not unique one.
+    public boolean indexExists(GlobType globType, Index index) {
+        return isIndexed(getDbIndices(globType), index);
+    }
+
+    // the indices of the model and of the DbIndex annotation not found in the db.
+    public List<Index> getMissingIndices(GlobType globType) {
+        List<Index> indices = DbIndex.getIndices(globType);
+        if (indices.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collection<DbIndexInfo> dbIndices = getDbIndices(globType);
+        List<Index> missing = new ArrayList<>();
+        for (Index index : indices) {
+            if (!isIndexed(dbIndices, index)) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    private boolean isIndexed(Collection<DbIndexInfo> dbIndices, Index index) {
+        List<String> columns = index.fields().map(sqlService::getColumnName).collect(Collectors.toList());
+        boolean unique = index.visit(new IsUniqueIndexVisitor()).isUnique();
+        for (DbIndexInfo dbIndex : dbIndices) {
+            if ((dbIndex.unique || !unique) && dbIndex.hasColumns(columns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Collection<DbIndexInfo> getDbIndices(GlobType globType) {
+        Map<String, DbIndexInfo> indices = new HashMap<>();
+        try {
+            ResultSet indexInfo = metaData.getIndexInfo(null, null, sqlService.getTableName(globType), false, true);
+            try {
+                while (indexInfo.next()) {
+                    String name = indexInfo.getString("INDEX_NAME");
+                    if (name == null || indexInfo.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                        continue;
+                    }
+                    DbIndexInfo dbIndex = indices.computeIfAbsent(name, s -> new DbIndexInfo());
+                    dbIndex.unique = !indexInfo.getBoolean("NON_UNIQUE");
+                    dbIndex.columns.put(indexInfo.getInt("ORDINAL_POSITION"), indexInfo.getString("COLUMN_NAME"));
+                }
+            } finally {
+                indexInfo.close();
+            }
+        } catch (SQLException e) {
+            throw new InvalidData(e);
+        }
+        return indices.values();
+    }
+
+    private static class DbIndexInfo {
+        private boolean unique;
+        private final SortedMap<Integer, String> columns = new TreeMap<>();
+
+        boolean hasColumns(List<String> expected) {
+            if (columns.size() != expected.size()) {
+                return false;
+            }
+            Iterator<String> iterator = expected.iterator();
+            for (String column : columns.values()) {
+                if (!column.equalsIgnoreCase(iterator.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package org.globsframework.sqlstreams.metrics;
+
+import java.util.List;
+
+/**
+ * Called on the thread of the request, once per executed statement (once per batch for bulk requests) :
+ * implementations must be thread safe and cheap.
+ * shape is the statement with its parameters as placeholders (the sql, or the mongo operation and filter shape),
+ * times are in nanoseconds, prepareNanos is only given on the first execution of a statement.
+ * For a select, executeNanos runs until the result is closed : it includes the fetch of the rows (and, for a stream,
+ * the time spent by the consumer).
+ * rows is the count of rows read (select) or changed, bytes is -1 when not known.
+ */
+public interface QueryListener {
+    QueryListener NULL = (kind, shape, prepareNanos, executeNanos, rows, bytes, details) -> {
+    };
+
+    enum Kind {
+        SELECT, CREATE, UPDATE, DELETE
+    }
+
+    void onStatement(Kind kind, String shape, long prepareNanos, long executeNanos, long rows, long bytes, Details details);
+
+    // computed on demand from the request : only valid during onStatement.
+    interface Details {
+        String getDriver();
+
+        // the bound values in parameter order (the last row for a jdbc batch).
+        List<Object> getParameters();
+    }
+}
@@ -0,0 +1,54 @@
+package org.globsframework.sqlstreams.metrics;
+
+import java.util.Arrays;
+
+public class QueryListeners {
+
+    private QueryListeners() {
+    }
+
+    public static QueryListener add(QueryListener listener, QueryListener added) {
+        if (listener == null || listener == QueryListener.NULL) {
+            return added;
+        }
+        if (listener instanceof Composite) {
+            QueryListener[] listeners = ((Composite) listener).listeners;
+            QueryListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+            newListeners[listeners.length] = added;
+            return new Composite(newListeners);
+        }
+        return new Composite(new QueryListener[]{listener, added});
+    }
+
+    public static QueryListener remove(QueryListener listener, QueryListener removed) {
+        if (listener == removed) {
+            return QueryListener.NULL;
+        }
+        if (listener instanceof Composite) {
+            QueryListener[] listeners = ((Composite) listener).listeners;
+            QueryListener result = QueryListener.NULL;
+            for (QueryListener queryListener : listeners) {
+                if (queryListener != removed) {
+                    result = add(result, queryListener);
+                }
+            }
+            return result;
+        }
+        return listener;
+    }
+
+    private static class Composite implements QueryListener {
+        private final QueryListener[] listeners;
+
+        Composite(QueryListener[] listeners) {
+            this.listeners = listeners;
+        }
+
+        public void onStatement(Kind kind, String shape, long prepareNanos, long executeNanos, long rows, long bytes,
+                                Details details) {
+            for (QueryListener listener : listeners) {
+                listener.onStatement(kind, shape, prepareNanos, executeNanos, rows, bytes, details);
+            }
+        }
+    }
+}
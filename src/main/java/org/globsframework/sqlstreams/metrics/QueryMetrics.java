@@ -0,0 +1,175 @@
+package org.globsframework.sqlstreams.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregate the statements by shape : prepare and execute latencies go to HdrHistogram recorders
+ * (wait free on the request threads), rows and bytes are summed.
+ * The literals of the shape are replaced by ? and the IN lists by a single (?...), so that inlined values and
+ * IN chunk sizes do not create new shapes ; past maxShapes, the new shapes are counted in one OTHER_SHAPE per kind.
+ * The metrics are first looked up by the shape as given (up to maxShapes of them) : the normalization only runs on a miss.
+ * Histograms are merged on read : getPrepareHistogram/getExecuteHistogram are meant for a reporter, not for the hot path.
+ */
+public class QueryMetrics implements QueryListener {
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    public static final int DEFAULT_MAX_SHAPES = 1000;
+    public static final String OTHER_SHAPE = "<other>";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private final ConcurrentHashMap<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StatementMetrics> byRawShape = new ConcurrentHashMap<>();
+    private final int significantDigits;
+    private final int maxShapes;
+
+    public QueryMetrics() {
+        this(DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    public QueryMetrics(int significantDigits) {
+        this(significantDigits, DEFAULT_MAX_SHAPES);
+    }
+
+    public QueryMetrics(int significantDigits, int maxShapes) {
+        this.significantDigits = significantDigits;
+        this.maxShapes = maxShapes;
+    }
+
+    public void onStatement(Kind kind, String shape, long prepareNanos, long executeNanos, long rows, long bytes,
+                            Details details) {
+        StatementMetrics metrics = byRawShape.get(shape);
+        if (metrics == null) {
+            metrics = getNormalized(kind, shape);
+            if (byRawShape.size() < maxShapes) {
+                byRawShape.put(shape, metrics);
+            }
+        }
+        metrics.record(prepareNanos, executeNanos, rows, bytes);
+    }
+
+    private StatementMetrics getNormalized(Kind kind, String shape) {
+        String normalized = normalize(shape);
+        StatementMetrics metrics = statements.get(normalized);
+        if (metrics == null) {
+            if (statements.size() >= maxShapes) {
+                normalized = kind + " " + OTHER_SHAPE;
+            }
+            metrics = statements.computeIfAbsent(normalized, s -> new StatementMetrics(kind, s, significantDigits));
+        }
+        return metrics;
+    }
+
+    public static String normalize(String shape) {
+        String normalized = STRING_LITERAL.matcher(shape).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+    }
+
+    // shape as given to onStatement.
+    public StatementMetrics get(String shape) {
+        return statements.get(normalize(shape));
+    }
+
+    public Collection<StatementMetrics> getStatements() {
+        return new ArrayList<>(statements.values());
+    }
+
+    public void reset() {
+        byRawShape.clear();
+        statements.clear();
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (StatementMetrics metrics : statements.values()) {
+            builder.append(metrics).append("\n");
+        }
+        return builder.toString();
+    }
+
+    public static class StatementMetrics {
+        private final Kind kind;
+        private final String shape;
+        private final Recorder prepareRecorder;
+        private final Recorder executeRecorder;
+        private final Histogram prepareHistogram;
+        private final Histogram executeHistogram;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        StatementMetrics(Kind kind, String shape, int significantDigits) {
+            this.kind = kind;
+            this.shape = shape;
+            prepareRecorder = new Recorder(significantDigits);
+            executeRecorder = new Recorder(significantDigits);
+            prepareHistogram = new Histogram(significantDigits);
+            executeHistogram = new Histogram(significantDigits);
+        }
+
+        void record(long prepareNanos, long executeNanos, long rows, long bytes) {
+            count.increment();
+            if (prepareNanos > 0) {
+                prepareRecorder.recordValue(prepareNanos);
+            }
+            executeRecorder.recordValue(Math.max(0, executeNanos));
+            if (rows > 0) {
+                this.rows.add(rows);
+            }
+            if (bytes > 0) {
+                this.bytes.add(bytes);
+            }
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        // in nanoseconds, since the creation.
+        public synchronized Histogram getPrepareHistogram() {
+            prepareHistogram.add(prepareRecorder.getIntervalHistogram());
+            return prepareHistogram.copy();
+        }
+
+        public synchronized Histogram getExecuteHistogram() {
+            executeHistogram.add(executeRecorder.getIntervalHistogram());
+            return executeHistogram.copy();
+        }
+
+        public String toString() {
+            Histogram execute = getExecuteHistogram();
+            return kind + " " + shape + " : count=" + getCount() + " rows=" + getRows() +
+                   " p50=" + toMicros(execute.getValueAtPercentile(50)) + "us" +
+                   " p99=" + toMicros(execute.getValueAtPercentile(99)) + "us" +
+                   " max=" + toMicros(execute.getMaxValue()) + "us";
+        }
+
+        private static long toMicros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
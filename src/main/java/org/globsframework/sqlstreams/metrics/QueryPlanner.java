@@ -0,0 +1,13 @@
+package org.globsframework.sqlstreams.metrics;
+
+import java.util.List;
+
+/**
+ * Give the execution plan of a statement reported to a QueryListener, on a connection of its own :
+ * meant to be called outside of the request thread.
+ */
+public interface QueryPlanner {
+
+    // null if the statement can not be explained.
+    String explain(QueryListener.Kind kind, String sql, List<Object> parameters);
+}
@@ -0,0 +1,240 @@
+package org.globsframework.sqlstreams.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write the statements slower than the threshold (prepare + execute) to a local file : sql, bound values,
+ * driver, rows and timings, one line per statement.
+ * Fast statements only cost a comparison : the bound values are asked to the request only once a statement is logged.
+ * With sampleRate n, one slow statement out of n is written.
+ * The file is rotated to path.1 ... path.(maxFiles - 1) once it reaches maxFileSize.
+ * With a QueryPlanner, the plan of the statement is asked on a background thread and added to the line.
+ */
+public class SlowQueryLog implements QueryListener, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    public static final int DEFAULT_MAX_PARAMETERS = 100;
+    public static final int MAX_PENDING_EXPLAINS = 16;
+    private static final int MAX_VALUE_LENGTH = 200;
+    private final Path path;
+    private final long thresholdNanos;
+    private final AtomicLong slowCount = new AtomicLong();
+    private int sampleRate = 1;
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+    private int maxFiles = DEFAULT_MAX_FILES;
+    private int maxParameters = DEFAULT_MAX_PARAMETERS;
+    private QueryPlanner planner;
+    private ThreadPoolExecutor explainExecutor;
+    private OutputStream output;
+    private long fileSize;
+
+    public SlowQueryLog(Path path, long threshold, TimeUnit unit) {
+        this.path = path;
+        this.thresholdNanos = unit.toNanos(threshold);
+    }
+
+    public SlowQueryLog sampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+        return this;
+    }
+
+    public SlowQueryLog rotation(long maxFileSize, int maxFiles) {
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        return this;
+    }
+
+    public SlowQueryLog maxParameters(int maxParameters) {
+        this.maxParameters = maxParameters;
+        return this;
+    }
+
+    // the plans are asked one at a time : when too many are pending, the statement is written without its plan.
+    public SlowQueryLog explain(QueryPlanner planner) {
+        this.planner = planner;
+        explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(MAX_PENDING_EXPLAINS), runnable -> {
+            Thread thread = new Thread(runnable, "globs-db-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return this;
+    }
+
+    public void onStatement(Kind kind, String shape, long prepareNanos, long executeNanos, long rows, long bytes,
+                            Details details) {
+        long duration = Math.max(0, prepareNanos) + Math.max(0, executeNanos);
+        if (duration < thresholdNanos) {
+            return;
+        }
+        if (slowCount.getAndIncrement() % sampleRate != 0) {
+            return;
+        }
+        if (planner == null || details == null) {
+            write(format(kind, shape, prepareNanos, executeNanos, rows, details, null));
+            return;
+        }
+        List<Object> parameters = new ArrayList<>(details.getParameters());
+        String line = format(kind, shape, prepareNanos, executeNanos, rows, details, parameters);
+        try {
+            explainExecutor.execute(() -> write(line + " plan=" + getPlan(kind, shape, parameters)));
+        } catch (RejectedExecutionException e) {
+            write(line + " plan=<skipped>");
+        }
+    }
+
+    private String getPlan(Kind kind, String sql, List<Object> parameters) {
+        try {
+            String plan = planner.explain(kind, sql, parameters);
+            return plan == null ? "<none>" : flatten(plan);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Fail to explain " + sql, e);
+            return "<failed: " + flatten(String.valueOf(e.getMessage())) + ">";
+        }
+    }
+
+    // slow statements seen, sampled or not.
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    private String format(Kind kind, String shape, long prepareNanos, long executeNanos, long rows, Details details,
+                          List<Object> parameters) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Instant.now())
+              .append(' ').append(kind)
+              .append(" driver=").append(details == null ? "?" : details.getDriver())
+              .append(" prepare=").append(toMicros(prepareNanos)).append("us")
+              .append(" execute=").append(toMicros(executeNanos)).append("us")
+              .append(" rows=").append(rows)
+              .append(" sql=").append(flatten(shape));
+        if (details != null) {
+            builder.append(" parameters=");
+            appendParameters(builder, parameters == null ? details.getParameters() : parameters);
+        }
+        return builder.toString();
+    }
+
+    private void appendParameters(StringBuilder builder, List<Object> parameters) {
+        builder.append('[');
+        int size = parameters.size();
+        for (int i = 0; i < size && i < maxParameters; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            appendValue(builder, parameters.get(i));
+        }
+        if (size > maxParameters) {
+            builder.append(", ... ").append(size - maxParameters).append(" more");
+        }
+        builder.append(']');
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof byte[]) {
+            builder.append('<').append(((byte[]) value).length).append(" bytes>");
+        } else if (value instanceof String) {
+            builder.append('\'').append(truncate(flatten((String) value))).append('\'');
+        } else {
+            builder.append(truncate(flatten(value.toString())));
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+
+    private static String flatten(String value) {
+        return value.replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static long toMicros(long nanos) {
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private synchronized void write(String line) {
+        byte[] data = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            if (output != null && fileSize + data.length > maxFileSize) {
+                output.close();
+                output = null;
+                rotate();
+            }
+            if (output == null) {
+                output = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                fileSize = Files.size(path);
+            }
+            output.write(data);
+            output.flush();
+            fileSize += data.length;
+        } catch (IOException e) {
+            LOGGER.warn("Fail to write slow query to " + path, e);
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (maxFiles == 1) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path file = getRotated(i);
+            if (Files.exists(file)) {
+                Files.move(file, getRotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, getRotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path getRotated(int index) {
+        Path parent = path.getParent();
+        String name = path.getFileName() + "." + index;
+        return parent == null ? Paths.get(name) : parent.resolve(name);
+    }
+
+    // wait for the pending plans.
+    public void close() {
+        if (explainExecutor != null) {
+            explainExecutor.shutdown();
+            try {
+                explainExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeOutput();
+    }
+
+    private synchronized void closeOutput() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOGGER.warn("Fail to close " + path, e);
+            }
+            output = null;
+        }
+    }
+}
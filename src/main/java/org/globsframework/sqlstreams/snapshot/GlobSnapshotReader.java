@@ -0,0 +1,246 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.json.GlobTypeResolver;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.Accessor;
+import org.globsframework.streams.accessors.utils.*;
+import org.globsframework.utils.exceptions.ItemNotFound;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Read back a snapshot written by GlobSnapshotWriter, one chunk at a time.
+ * Columns whose field no longer exists in the GlobType are skipped.
+ */
+public class GlobSnapshotReader implements GlobStream {
+    private final ReadableByteChannel channel;
+    private final GlobType globType;
+    private final Column[] columns;
+    private final Map<Field, Accessor> accessors = new LinkedHashMap<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private int rowCount;
+    private int row;
+    private boolean ended;
+
+    public GlobSnapshotReader(ReadableByteChannel channel, GlobTypeResolver resolver) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = read(8);
+        SnapshotFormat.checkHeader(header.getInt(), header.getInt());
+        String typeName = readString();
+        globType = resolver.get(typeName);
+        if (globType == null) {
+            throw new ItemNotFound("Unknown type " + typeName);
+        }
+        columns = new Column[read(4).getInt()];
+        for (int i = 0; i < columns.length; i++) {
+            String fieldName = readString();
+            byte tag = read(1).get();
+            Field field = globType.findField(fieldName);
+            if (field != null && SnapshotFormat.getTag(field) != tag) {
+                throw new UnexpectedApplicationState("Field " + globType.getName() + "." + fieldName + " changed of type");
+            }
+            columns[i] = new Column(field, tag);
+            if (field != null) {
+                accessors.put(field, columns[i].accessor);
+            }
+        }
+    }
+
+    public GlobType getGlobType() {
+        return globType;
+    }
+
+    public boolean next() {
+        if (++row >= rowCount) {
+            if (ended || !readChunk()) {
+                return false;
+            }
+            row = 0;
+        }
+        for (Column column : columns) {
+            column.set(row);
+        }
+        return true;
+    }
+
+    private boolean readChunk() {
+        try {
+            rowCount = read(4).getInt();
+            if (rowCount == 0) {
+                ended = true;
+                return false;
+            }
+            for (Column column : columns) {
+                ByteBuffer data = read(read(4).getInt());
+                column.decode(data, rowCount);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UnexpectedApplicationState("Fail to read snapshot of " + globType.getName(), e);
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[read(4).getInt()];
+        read(bytes.length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer read(int size) throws IOException {
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.limit(size);
+        SnapshotFormat.readFully(channel, buffer);
+        return buffer;
+    }
+
+    public Collection<Field> getFields() {
+        return accessors.keySet();
+    }
+
+    public Accessor getAccessor(Field field) {
+        return accessors.get(field);
+    }
+
+    public void close() {
+    }
+
+    private static class Column {
+        private final Field field;
+        private final byte tag;
+        private final Accessor accessor;
+        private boolean[] nulls = new boolean[0];
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private boolean[] booleans;
+        private Object[] objects;
+
+        Column(Field field, byte tag) {
+            this.field = field;
+            this.tag = tag;
+            switch (tag) {
+                case SnapshotFormat.INTEGER:
+                    accessor = new ValueIntegerAccessor();
+                    break;
+                case SnapshotFormat.LONG:
+                    accessor = new ValueLongAccessor(null);
+                    break;
+                case SnapshotFormat.DOUBLE:
+                    accessor = new ValueDoubleAccessor(null);
+                    break;
+                case SnapshotFormat.BOOLEAN:
+                    accessor = new ValueBooleanAccessor(null);
+                    break;
+                case SnapshotFormat.STRING:
+                    accessor = new ValueStringAccessor(null);
+                    break;
+                case SnapshotFormat.BLOB:
+                    accessor = new ValueBlobAccessor(null);
+                    break;
+                default:
+                    throw new UnexpectedApplicationState("Unknown column type " + tag);
+            }
+        }
+
+        void decode(ByteBuffer data, int rows) {
+            if (field == null) {
+                return;
+            }
+            if (nulls.length < rows) {
+                nulls = new boolean[rows];
+                ints = null;
+                longs = null;
+                doubles = null;
+                booleans = null;
+                objects = null;
+            }
+            int bitmapLength = (rows + 7) >>> 3;
+            for (int i = 0; i < rows; i++) {
+                nulls[i] = (data.get(i >>> 3) & (1 << (i & 7))) != 0;
+            }
+            data.position(bitmapLength);
+            for (int i = 0; i < rows; i++) {
+                if (nulls[i]) {
+                    continue;
+                }
+                switch (tag) {
+                    case SnapshotFormat.INTEGER:
+                        if (ints == null) {
+                            ints = new int[nulls.length];
+                        }
+                        ints[i] = data.getInt();
+                        break;
+                    case SnapshotFormat.LONG:
+                        if (longs == null) {
+                            longs = new long[nulls.length];
+                        }
+                        longs[i] = data.getLong();
+                        break;
+                    case SnapshotFormat.DOUBLE:
+                        if (doubles == null) {
+                            doubles = new double[nulls.length];
+                        }
+                        doubles[i] = data.getDouble();
+                        break;
+                    case SnapshotFormat.BOOLEAN:
+                        if (booleans == null) {
+                            booleans = new boolean[nulls.length];
+                        }
+                        booleans[i] = data.get() != 0;
+                        break;
+                    case SnapshotFormat.STRING:
+                        if (objects == null) {
+                            objects = new Object[nulls.length];
+                        }
+                        objects[i] = SnapshotFormat.readString(data);
+                        break;
+                    case SnapshotFormat.BLOB:
+                        if (objects == null) {
+                            objects = new Object[nulls.length];
+                        }
+                        byte[] bytes = new byte[data.getInt()];
+                        data.get(bytes);
+                        objects[i] = bytes;
+                        break;
+                }
+            }
+        }
+
+        void set(int row) {
+            if (field == null) {
+                return;
+            }
+            boolean isNull = nulls[row];
+            switch (tag) {
+                case SnapshotFormat.INTEGER:
+                    ((ValueIntegerAccessor) accessor).setValue(isNull ? null : ints[row]);
+                    break;
+                case SnapshotFormat.LONG:
+                    ((ValueLongAccessor) accessor).setValue(isNull ? null : longs[row]);
+                    break;
+                case SnapshotFormat.DOUBLE:
+                    ((ValueDoubleAccessor) accessor).setValue(isNull ? null : doubles[row]);
+                    break;
+                case SnapshotFormat.BOOLEAN:
+                    ((ValueBooleanAccessor) accessor).setValue(isNull ? null : booleans[row]);
+                    break;
+                case SnapshotFormat.STRING:
+                    ((ValueStringAccessor) accessor).setValue(isNull ? null : (String) objects[row]);
+                    break;
+                case SnapshotFormat.BLOB:
+                    ((ValueBlobAccessor) accessor).setValue(isNull ? null : (byte[]) objects[row]);
+                    break;
+            }
+        }
+    }
+}
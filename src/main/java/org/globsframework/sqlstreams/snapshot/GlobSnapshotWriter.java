@@ -0,0 +1,191 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.Accessor;
+import org.globsframework.streams.accessors.IntegerAccessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Write the globs of a GlobStream in column chunks of chunkRows rows : only one chunk is kept in memory.
+ */
+public class GlobSnapshotWriter {
+    public static final int DEFAULT_CHUNK_ROWS = 4096;
+    private final WritableByteChannel channel;
+    private final int chunkRows;
+    private final ByteBuffer intBuffer = ByteBuffer.allocate(4);
+
+    public GlobSnapshotWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_CHUNK_ROWS);
+    }
+
+    public GlobSnapshotWriter(WritableByteChannel channel, int chunkRows) {
+        this.channel = channel;
+        this.chunkRows = Math.max(8, chunkRows);
+    }
+
+    // only the fields of globType are written ; return the row count.
+    public long write(GlobType globType, GlobStream globStream) throws IOException {
+        List<Column> columns = new ArrayList<>();
+        for (Field field : globStream.getFields()) {
+            if (field.getGlobType() == globType) {
+                columns.add(new Column(field, globStream.getAccessor(field), chunkRows));
+            }
+        }
+        writeHeader(globType, columns);
+        long count = 0;
+        int rows = 0;
+        while (globStream.next()) {
+            for (Column column : columns) {
+                column.add(rows);
+            }
+            if (++rows == chunkRows) {
+                writeChunk(columns, rows);
+                count += rows;
+                rows = 0;
+            }
+        }
+        if (rows != 0) {
+            writeChunk(columns, rows);
+            count += rows;
+        }
+        writeInt(0);
+        return count;
+    }
+
+    private void writeHeader(GlobType globType, List<Column> columns) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(1024);
+        header.putInt(SnapshotFormat.MAGIC);
+        header.putInt(SnapshotFormat.VERSION);
+        header = putString(header, globType.getName());
+        header.putInt(columns.size());
+        for (Column column : columns) {
+            header = putString(header, column.field.getName());
+            header = ensure(header, 1);
+            header.put(column.tag);
+        }
+        header.flip();
+        writeFully(header);
+    }
+
+    private void writeChunk(List<Column> columns, int rows) throws IOException {
+        writeInt(rows);
+        int bitmapLength = (rows + 7) >>> 3;
+        for (Column column : columns) {
+            writeInt(bitmapLength + column.data.position());
+            writeFully(ByteBuffer.wrap(column.nulls, 0, bitmapLength));
+            column.data.flip();
+            writeFully(column.data);
+            column.data.clear();
+            Arrays.fill(column.nulls, 0, bitmapLength, (byte) 0);
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        intBuffer.clear();
+        intBuffer.putInt(value).flip();
+        writeFully(intBuffer);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, 4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static ByteBuffer putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer = ensure(buffer, 4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int size) {
+        if (buffer.remaining() >= size) {
+            return buffer;
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    private static class Column {
+        private final Field field;
+        private final byte tag;
+        private final Accessor accessor;
+        private final IntegerAccessor integerAccessor;
+        private final byte[] nulls;
+        private ByteBuffer data = ByteBuffer.allocate(4096);
+
+        Column(Field field, Accessor accessor, int chunkRows) {
+            this.field = field;
+            this.tag = SnapshotFormat.getTag(field);
+            this.accessor = accessor;
+            this.integerAccessor = accessor instanceof IntegerAccessor ? (IntegerAccessor) accessor : null;
+            this.nulls = new byte[(chunkRows + 7) >>> 3];
+        }
+
+        void add(int row) {
+            if (integerAccessor != null) {
+                int value = integerAccessor.getValue(0);
+                if (integerAccessor.wasNull()) {
+                    setNull(row);
+                } else {
+                    data = ensure(data, 4);
+                    data.putInt(value);
+                }
+                return;
+            }
+            Object value = accessor.getObjectValue();
+            if (value == null) {
+                setNull(row);
+                return;
+            }
+            switch (tag) {
+                case SnapshotFormat.INTEGER:
+                    data = ensure(data, 4);
+                    data.putInt((Integer) value);
+                    break;
+                case SnapshotFormat.LONG:
+                    data = ensure(data, 8);
+                    data.putLong((Long) value);
+                    break;
+                case SnapshotFormat.DOUBLE:
+                    data = ensure(data, 8);
+                    data.putDouble((Double) value);
+                    break;
+                case SnapshotFormat.BOOLEAN:
+                    data = ensure(data, 1);
+                    data.put((Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case SnapshotFormat.STRING:
+                    data = putString(data, (String) value);
+                    break;
+                case SnapshotFormat.BLOB:
+                    data = putBytes(data, (byte[]) value);
+                    break;
+            }
+        }
+
+        private void setNull(int row) {
+            nulls[row >>> 3] |= 1 << (row & 7);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.CreateBuilder;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.constraints.Constraint;
+import org.globsframework.sqlstreams.json.GlobTypeResolver;
+import org.globsframework.streams.GlobStream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GlobSnapshots {
+
+    private GlobSnapshots() {
+    }
+
+    public static long export(SqlConnection sqlConnection, GlobType globType, Path path) throws IOException {
+        return export(sqlConnection, globType, null, path);
+    }
+
+    public static long export(SqlConnection sqlConnection, GlobType globType, Constraint constraint, Path path) throws IOException {
+        GlobStream globStream = sqlConnection.getQueryBuilder(globType, constraint)
+              .selectAll()
+              .getQuery().execute();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return new GlobSnapshotWriter(channel).write(globType, globStream);
+        } finally {
+            globStream.close();
+        }
+    }
+
+    // rows are sent through the bulk create request ; the commit is left to the caller.
+    public static long restore(SqlConnection sqlConnection, Path path, GlobTypeResolver resolver) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            GlobSnapshotReader reader = new GlobSnapshotReader(channel, resolver);
+            CreateBuilder createBuilder = sqlConnection.getCreateBuilder(reader.getGlobType());
+            for (Field field : reader.getFields()) {
+                createBuilder.setObject(field, reader.getAccessor(field));
+            }
+            BulkDbRequest request = createBuilder.getBulkRequest();
+            long count = 0;
+            try {
+                while (reader.next()) {
+                    request.run();
+                    count++;
+                }
+            } finally {
+                request.close();
+                reader.close();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.sqlstreams.json.GlobTypeResolver;
+import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.*;
+import org.globsframework.utils.exceptions.ItemNotFound;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GlobStream over a memory mapped snapshot : the accessors read the values in place, strings and blobs are
+ * decoded only when asked. The file is mapped by windows of at most windowSize bytes, a chunk never spans two windows.
+ */
+public class MappedGlobSnapshotReader implements GlobStream {
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final GlobType globType;
+    private final Column[] columns;
+    private final Map<Field, Accessor> accessors = new LinkedHashMap<>();
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private int rowCount;
+    private int row;
+    private boolean ended;
+
+    public MappedGlobSnapshotReader(Path path, GlobTypeResolver resolver) throws IOException {
+        this(path, resolver, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedGlobSnapshotReader(Path path, GlobTypeResolver resolver, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        try {
+            SnapshotFormat.checkHeader(readInt(), readInt());
+            String typeName = readString();
+            globType = resolver.get(typeName);
+            if (globType == null) {
+                throw new ItemNotFound("Unknown type " + typeName);
+            }
+            columns = new Column[readInt()];
+            for (int i = 0; i < columns.length; i++) {
+                String fieldName = readString();
+                int offset = offset(1);
+                byte tag = window.get(offset);
+                position += 1;
+                Field field = globType.findField(fieldName);
+                if (field != null && SnapshotFormat.getTag(field) != tag) {
+                    throw new UnexpectedApplicationState("Field " + globType.getName() + "." + fieldName + " changed of type");
+                }
+                columns[i] = new Column(field, tag);
+                if (field != null) {
+                    accessors.put(field, columns[i].createAccessor());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public GlobType getGlobType() {
+        return globType;
+    }
+
+    public boolean next() {
+        if (++row >= rowCount) {
+            if (ended || !nextChunk()) {
+                return false;
+            }
+            row = 0;
+        }
+        for (Column column : columns) {
+            column.moveTo(row);
+        }
+        return true;
+    }
+
+    private boolean nextChunk() {
+        try {
+            rowCount = readInt();
+            if (rowCount == 0) {
+                ended = true;
+                return false;
+            }
+            long chunkStart = position;
+            for (Column column : columns) {
+                int length = readInt();
+                column.start = position;
+                position += length;
+            }
+            offset(chunkStart, Math.toIntExact(position - chunkStart));
+            for (Column column : columns) {
+                column.init((int) (column.start - windowStart), rowCount);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UnexpectedApplicationState("Fail to read snapshot of " + globType.getName(), e);
+        }
+    }
+
+    private int readInt() throws IOException {
+        int offset = offset(4);
+        position += 4;
+        return window.getInt(offset);
+    }
+
+    private String readString() throws IOException {
+        int length = readInt();
+        int offset = offset(length);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = window.get(offset + i);
+        }
+        position += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int offset(int size) throws IOException {
+        return offset(position, size);
+    }
+
+    // offset in the current window of [at, at + size), remapped if needed.
+    private int offset(long at, int size) throws IOException {
+        if (window == null || at < windowStart || at + size > windowStart + window.capacity()) {
+            if (at + size > fileSize) {
+                throw new EOFException("Truncated snapshot");
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(fileSize - at, Math.max(windowSize, size)));
+            windowStart = at;
+        }
+        return (int) (at - windowStart);
+    }
+
+    public Collection<Field> getFields() {
+        return accessors.keySet();
+    }
+
+    public Accessor getAccessor(Field field) {
+        return accessors.get(field);
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UnexpectedApplicationState("Fail to close snapshot of " + globType.getName(), e);
+        }
+        window = null;
+    }
+
+    private class Column {
+        private final Field field;
+        private final byte tag;
+        private long start;
+        private int bitmapOffset;
+        private int nextOffset;
+        private int offset;
+        private boolean isNull;
+
+        Column(Field field, byte tag) {
+            this.field = field;
+            this.tag = tag;
+        }
+
+        void init(int offset, int rows) {
+            bitmapOffset = offset;
+            nextOffset = offset + ((rows + 7) >>> 3);
+        }
+
+        void moveTo(int row) {
+            if (field == null) {
+                return;
+            }
+            isNull = (window.get(bitmapOffset + (row >>> 3)) & (1 << (row & 7))) != 0;
+            if (isNull) {
+                return;
+            }
+            offset = nextOffset;
+            switch (tag) {
+                case SnapshotFormat.INTEGER:
+                    nextOffset += 4;
+                    break;
+                case SnapshotFormat.LONG:
+                case SnapshotFormat.DOUBLE:
+                    nextOffset += 8;
+                    break;
+                case SnapshotFormat.BOOLEAN:
+                    nextOffset += 1;
+                    break;
+                default:
+                    nextOffset += 4 + window.getInt(offset);
+            }
+        }
+
+        byte[] getBytes() {
+            if (isNull) {
+                return null;
+            }
+            byte[] bytes = new byte[window.getInt(offset)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = window.get(offset + 4 + i);
+            }
+            return bytes;
+        }
+
+        Accessor createAccessor() {
+            switch (tag) {
+                case SnapshotFormat.INTEGER:
+                    return new MappedIntegerAccessor(this);
+                case SnapshotFormat.LONG:
+                    return new MappedLongAccessor(this);
+                case SnapshotFormat.DOUBLE:
+                    return new MappedDoubleAccessor(this);
+                case SnapshotFormat.BOOLEAN:
+                    return new MappedBooleanAccessor(this);
+                case SnapshotFormat.STRING:
+                    return new MappedStringAccessor(this);
+                case SnapshotFormat.BLOB:
+                    return new MappedBlobAccessor(this);
+                default:
+                    throw new UnexpectedApplicationState("Unknown column type " + tag);
+            }
+        }
+    }
+
+    private class MappedIntegerAccessor implements IntegerAccessor {
+        private final Column column;
+
+        MappedIntegerAccessor(Column column) {
+            this.column = column;
+        }
+
+        public Integer getInteger() {
+            return column.isNull ? null : window.getInt(column.offset);
+        }
+
+        public int getValue(int valueIfNull) {
+            return column.isNull ? valueIfNull : window.getInt(column.offset);
+        }
+
+        public boolean wasNull() {
+            return column.isNull;
+        }
+
+        public Object getObjectValue() {
+            return getInteger();
+        }
+    }
+
+    private class MappedLongAccessor implements LongAccessor {
+        private final Column column;
+
+        MappedLongAccessor(Column column) {
+            this.column = column;
+        }
+
+        public Long getLong() {
+            return column.isNull ? null : window.getLong(column.offset);
+        }
+
+        public long getValue(long valueIfNull) {
+            return column.isNull ? valueIfNull : window.getLong(column.offset);
+        }
+
+        public boolean wasNull() {
+            return column.isNull;
+        }
+
+        public Object getObjectValue() {
+            return getLong();
+        }
+    }
+
+    private class MappedDoubleAccessor implements DoubleAccessor {
+        private final Column column;
+
+        MappedDoubleAccessor(Column column) {
+            this.column = column;
+        }
+
+        public Double getDouble() {
+            return column.isNull ? null : window.getDouble(column.offset);
+        }
+
+        public double getValue(double valueIfNull) {
+            return column.isNull ? valueIfNull : window.getDouble(column.offset);
+        }
+
+        public boolean wasNull() {
+            return column.isNull;
+        }
+
+        public Object getObjectValue() {
+            return getDouble();
+        }
+    }
+
+    private class MappedBooleanAccessor implements BooleanAccessor {
+        private final Column column;
+
+        MappedBooleanAccessor(Column column) {
+            this.column = column;
+        }
+
+        public Boolean getBoolean() {
+            return column.isNull ? null : window.get(column.offset) != 0;
+        }
+
+        public boolean getValue(boolean valueIfNull) {
+            return column.isNull ? valueIfNull : window.get(column.offset) != 0;
+        }
+
+        public Object getObjectValue() {
+            return getBoolean();
+        }
+    }
+
+    private static class MappedStringAccessor implements StringAccessor {
+        private final Column column;
+
+        MappedStringAccessor(Column column) {
+            this.column = column;
+        }
+
+        public String getString() {
+            byte[] bytes = column.getBytes();
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public Object getObjectValue() {
+            return getString();
+        }
+    }
+
+    private static class MappedBlobAccessor implements BlobAccessor {
+        private final Column column;
+
+        MappedBlobAccessor(Column column) {
+            this.column = column;
+        }
+
+        public byte[] getValue() {
+            return column.getBytes();
+        }
+
+        public Object getObjectValue() {
+            return getValue();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.Field;
+import org.globsframework.metamodel.fields.*;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/*
+header : magic, version, type name, field count, (field name, field tag)*
+chunk  : row count, then per field : byte length, null bitmap (1 bit per row), non null values
+end    : row count 0
+numbers are big endian, strings and blobs are length prefixed.
+ */
+class SnapshotFormat {
+    static final int MAGIC = 0x47534E50;
+    static final int VERSION = 1;
+    static final byte INTEGER = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+    static final byte STRING = 5;
+    static final byte BLOB = 6;
+
+    private SnapshotFormat() {
+    }
+
+    static byte getTag(Field field) {
+        TagVisitor visitor = new TagVisitor();
+        field.safeVisit(visitor);
+        return visitor.tag;
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated snapshot");
+            }
+        }
+        buffer.flip();
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void checkHeader(int magic, int version) {
+        if (magic != MAGIC) {
+            throw new UnexpectedApplicationState("Not a glob snapshot");
+        }
+        if (version != VERSION) {
+            throw new UnexpectedApplicationState("Unsupported snapshot version " + version);
+        }
+    }
+
+    private static class TagVisitor implements FieldVisitor {
+        private byte tag;
+
+        public void visitInteger(IntegerField field) throws Exception {
+            tag = INTEGER;
+        }
+
+        public void visitDouble(DoubleField field) throws Exception {
+            tag = DOUBLE;
+        }
+
+        public void visitString(StringField field) throws Exception {
+            tag = STRING;
+        }
+
+        public void visitBoolean(BooleanField field) throws Exception {
+            tag = BOOLEAN;
+        }
+
+        public void visitBlob(BlobField field) throws Exception {
+            tag = BLOB;
+        }
+
+        public void visitLong(LongField field) throws Exception {
+            tag = LONG;
+        }
+    }
+}
@@ -3,13 +3,19 @@ package org.globsframework.sqlstreams.utils;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.sqlstreams.SqlService;
 import org.globsframework.sqlstreams.annotations.TargetTypeName;
+import org.globsframework.sqlstreams.metrics.QueryListener;
+import org.globsframework.sqlstreams.metrics.QueryListeners;
 import org.globsframework.utils.Strings;
 
+import java.util.concurrent.Executor;
+
 public abstract class AbstractSqlService implements SqlService {
 
     private static final String[] RESERVED_KEYWORDS = {
             "COUNT", "WHERE", "FROM", "SELECT"
     };
+    private Executor executor = AsyncExecutors.getDefault();
+    private volatile QueryListener queryListener = QueryListener.NULL;
 
 //    public String getTableName(GlobType globType) {
 //        return toSqlName(globType.getName());
@@ -32,4 +38,25 @@ public abstract class AbstractSqlService implements SqlService {
     public String getTableName(GlobType type) {
         return TargetTypeName.getName(type);
     }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public QueryListener getQueryListener() {
+        return queryListener;
+    }
+
+    // taken into account by the connections opened after the call.
+    public synchronized void addQueryListener(QueryListener listener) {
+        queryListener = QueryListeners.add(queryListener, listener);
+    }
+
+    public synchronized void removeQueryListener(QueryListener listener) {
+        queryListener = QueryListeners.remove(queryListener, listener);
+    }
 }
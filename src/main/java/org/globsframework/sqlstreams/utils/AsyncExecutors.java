@@ -0,0 +1,38 @@
+package org.globsframework.sqlstreams.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncExecutors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncExecutors.class);
+
+    private static class DefaultHolder {
+        static final ExecutorService DEFAULT = create();
+    }
+
+    public static ExecutorService getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    // virtual threads when the jvm has them (java 21+), daemon cached pool otherwise.
+    public static ExecutorService create() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+        } catch (Exception e) {
+            LOGGER.warn("Fail to create virtual thread executor", e);
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "globs-db-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package org.globsframework.sqlstreams.utils;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.model.Key;
+
+import java.util.*;
+
+public class KeyChunks {
+    public static final int DEFAULT_MAX_PARAMETERS = 1000;
+
+    private KeyChunks() {
+    }
+
+    // keys grouped per type (in order), each chunk binding at most maxParameters key values.
+    public static Map<GlobType, List<List<Key>>> split(Collection<Key> keys, int maxParameters) {
+        Map<GlobType, List<List<Key>>> chunks = new LinkedHashMap<>();
+        for (Key key : keys) {
+            GlobType globType = key.getGlobType();
+            int chunkSize = Math.max(1, maxParameters / globType.getKeyFields().length);
+            List<List<Key>> typeChunks = chunks.computeIfAbsent(globType, type -> new ArrayList<>());
+            if (typeChunks.isEmpty() || typeChunks.get(typeChunks.size() - 1).size() == chunkSize) {
+                typeChunks.add(new ArrayList<>(Math.min(chunkSize, keys.size())));
+            }
+            typeChunks.get(typeChunks.size() - 1).add(key);
+        }
+        return chunks;
+    }
+}
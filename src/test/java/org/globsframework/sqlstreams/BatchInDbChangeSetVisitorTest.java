@@ -0,0 +1,94 @@
+package org.globsframework.sqlstreams;
+
+import org.globsframework.metamodel.GlobModel;
+import org.globsframework.metamodel.impl.DefaultGlobModel;
+import org.globsframework.model.ChangeSet;
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.GlobList;
+import org.globsframework.model.KeyBuilder;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sqlstreams.metadata.DbCheckerTest.IndexedObject;
+import org.globsframework.xml.XmlChangeSetParser;
+import org.globsframework.xml.XmlGlobStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+public class BatchInDbChangeSetVisitorTest extends DbServicesTestCase {
+
+    @Test
+    public void testGroupedChanges() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                    "<dummyObject id='2' name='world' value='2.2' present='false'/>" +
+                    "<dummyObject id='3' name='world' value='2.2' present='false'/>" +
+                    "<dummyObject id='4' name='world' value='2.2' present='false'/>" +
+                    "<dummyObject id='5' name='world' value='2.2' present='false'/>", directory.get(GlobModel.class)));
+
+        ChangeSet changeSet = XmlChangeSetParser.parse(directory.get(GlobModel.class), new StringReader(
+              "<changes>" +
+                    "  <create type='dummyObject' id='10' name='new'/>" +
+                    "  <create type='dummyObject' id='11' name='other'/>" +
+                    "  <update type='dummyObject' id='1' name='updated' _name='hello'/>" +
+                    "  <update type='dummyObject' id='5' value='5.5' _value='2.2'/>" +
+                    "  <delete type='dummyObject' id='2'/>" +
+                    "  <delete type='dummyObject' id='3'/>" +
+                    "  <delete type='dummyObject' id='4'/>" +
+                    "</changes>"));
+
+        BatchInDbChangeSetVisitor visitor = new BatchInDbChangeSetVisitor(sqlConnection);
+        visitor.setMaxParameters(2);
+        changeSet.safeVisit(visitor);
+        visitor.flush();
+
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 10), DummyObject.NAME, "new", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 11), DummyObject.NAME, "other", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.NAME, "updated", sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.VALUE, 1.1, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 5), DummyObject.VALUE, 5.5, sqlConnection);
+        GlobList all = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+              .select(DummyObject.ID)
+              .orderAsc(DummyObject.ID)
+              .getQuery().executeAsGlobs();
+        Assert.assertEquals(4, all.size());
+        Assert.assertEquals(1, all.get(0).get(DummyObject.ID).intValue());
+        Assert.assertEquals(5, all.get(1).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void testUniqueValueFreedByADeletionIsReused() throws Exception {
+        sqlConnection.createTable(IndexedObject.TYPE);
+        sqlConnection.emptyTable(IndexedObject.TYPE);
+        for (int id = 1; id <= 3; id++) {
+            sqlConnection.getCreateBuilder(IndexedObject.TYPE)
+                  .set(IndexedObject.ID, id)
+                  .set(IndexedObject.NAME, "name " + id)
+                  .set(IndexedObject.NAME_2, "x")
+                  .getRequest().run();
+        }
+        sqlConnection.commit();
+
+        String type = "type='" + IndexedObject.TYPE.getName() + "' ";
+        String name = IndexedObject.NAME.getName();
+        String name2 = IndexedObject.NAME_2.getName();
+        ChangeSet changeSet = XmlChangeSetParser.parse(new DefaultGlobModel(IndexedObject.TYPE), new StringReader(
+              "<changes>" +
+                    "  <delete " + type + "id='1' _" + name + "='name 1' _" + name2 + "='x'/>" +
+                    "  <create " + type + "id='4' " + name + "='name 1' " + name2 + "='x'/>" +
+                    "  <delete " + type + "id='2' _" + name + "='name 2' _" + name2 + "='x'/>" +
+                    "  <update " + type + "id='3' " + name + "='name 2' _" + name + "='name 3'/>" +
+                    "</changes>"));
+        BatchInDbChangeSetVisitor visitor = new BatchInDbChangeSetVisitor(sqlConnection);
+        changeSet.safeVisit(visitor);
+        visitor.flush();
+
+        checkDb(KeyBuilder.newKey(IndexedObject.TYPE, 4), IndexedObject.NAME, "name 1", sqlConnection);
+        checkDb(KeyBuilder.newKey(IndexedObject.TYPE, 3), IndexedObject.NAME, "name 2", sqlConnection);
+        Assert.assertEquals(2, sqlConnection.getQueryBuilder(IndexedObject.TYPE)
+              .selectAll()
+              .getQuery().executeAsGlobs().size());
+        sqlConnection.emptyTable(IndexedObject.TYPE);
+        sqlConnection.commit();
+    }
+}
@@ -0,0 +1,164 @@
+package org.globsframework.sqlstreams;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.metamodel.annotations.KeyField;
+import org.globsframework.metamodel.fields.LongField;
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.Glob;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcSqlService;
+import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParallelScanTest extends DbServicesTestCase {
+
+    @Test
+    public void testPartitionsCoverAllRows() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueIntegerAccessor count = new ValueIntegerAccessor();
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .set(DummyObject.COUNT, count)
+              .getBulkRequest();
+        for (int i = 0; i < 103; i++) {
+            id.setValue(i * 3);
+            count.setValue(i % 10 == 0 ? null : i);
+            request.run();
+        }
+        request.close();
+        sqlConnection.commit();
+
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        new ParallelScan(sqlService, DummyObject.TYPE)
+              .partitions(4)
+              .select(DummyObject.ID)
+              .forEach(glob -> ids.add(glob.get(DummyObject.ID)))
+              .get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(103, ids.size());
+
+        try (Stream<Glob> stream = new ParallelScan(sqlService, DummyObject.TYPE)
+              .partitionBy(DummyObject.COUNT)
+              .partitions(3)
+              .queueSize(5)
+              .where(Constraints.strictlyLess(DummyObject.ID, 150))
+              .stream()) {
+            Set<Integer> selected = stream.map(glob -> glob.get(DummyObject.ID)).collect(Collectors.toSet());
+            Assert.assertEquals(50, selected.size());
+        }
+    }
+
+    @Test
+    public void testConcurrentPartitionsAreBoundedByThePool() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .getBulkRequest();
+        for (int i = 0; i < 40; i++) {
+            id.setValue(i);
+            request.run();
+        }
+        request.close();
+        sqlConnection.commit();
+
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        service.setConnectionPoolSize(0, 2);
+        service.getConnectionPool().setBorrowTimeout(100);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        new ParallelScan(service, DummyObject.TYPE)
+              .partitions(8)
+              .select(DummyObject.ID)
+              .forEach(glob -> ids.add(glob.get(DummyObject.ID)))
+              .get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(40, ids.size());
+        Assert.assertTrue(service.getConnectionPool().getTotalCount() <= 2);
+        service.close();
+    }
+
+    @Test
+    public void testFailureStopsTheOtherReaders() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .getBulkRequest();
+        for (int i = 0; i < 400; i++) {
+            id.setValue(i);
+            request.run();
+        }
+        request.close();
+        sqlConnection.commit();
+
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            new ParallelScan(sqlService, DummyObject.TYPE)
+                  .partitions(8)
+                  .concurrency(2)
+                  .select(DummyObject.ID)
+                  .forEach(glob -> {
+                      calls.incrementAndGet();
+                      if (glob.get(DummyObject.ID) == 0) {
+                          throw new RuntimeException("failed");
+                      }
+                      try {
+                          Thread.sleep(1);
+                      } catch (InterruptedException e) {
+                          Thread.currentThread().interrupt();
+                      }
+                  })
+                  .get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals("failed", e.getCause().getMessage());
+        }
+        Assert.assertTrue(String.valueOf(calls.get()), calls.get() < 200);
+    }
+
+    @Test
+    public void testLongRangeWiderThanLongMaxValue() throws Exception {
+        sqlConnection.createTable(LongKeyObject.TYPE);
+        sqlConnection.emptyTable(LongKeyObject.TYPE);
+        long[] ids = {Long.MIN_VALUE + 1, -5, 0, 7, Long.MAX_VALUE};
+        for (long value : ids) {
+            SqlRequest request = sqlConnection.getCreateBuilder(LongKeyObject.TYPE)
+                  .set(LongKeyObject.ID, value)
+                  .getRequest();
+            request.run();
+            request.close();
+        }
+        sqlConnection.commit();
+
+        ParallelScan scan = new ParallelScan(sqlService, LongKeyObject.TYPE).partitions(4);
+        Assert.assertEquals(4, scan.getPartitions().size());
+        Set<Long> read = ConcurrentHashMap.newKeySet();
+        AtomicInteger count = new AtomicInteger();
+        scan.forEach(glob -> {
+            read.add(glob.get(LongKeyObject.ID));
+            count.incrementAndGet();
+        }).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(5, read.size());
+        Assert.assertEquals(5, count.get());
+        sqlConnection.emptyTable(LongKeyObject.TYPE);
+        sqlConnection.commit();
+    }
+
+    public static class LongKeyObject {
+        public static GlobType TYPE;
+
+        @KeyField
+        public static LongField ID;
+
+        static {
+            GlobTypeLoaderFactory.create(LongKeyObject.class).load();
+        }
+    }
+}
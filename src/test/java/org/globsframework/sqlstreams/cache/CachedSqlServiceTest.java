@@ -0,0 +1,148 @@
+package org.globsframework.sqlstreams.cache;
+
+import org.globsframework.metamodel.GlobModel;
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.Glob;
+import org.globsframework.model.Key;
+import org.globsframework.model.KeyBuilder;
+import org.globsframework.model.MutableGlob;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.xml.XmlGlobStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class CachedSqlServiceTest extends DbServicesTestCase {
+
+    @Test
+    public void testReadThroughAndInvalidation() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello'/>" +
+                    "<dummyObject id='2' name='world'/>" +
+                    "<dummyObject id='3' name='other'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        CachedSqlService cachedSqlService = new CachedSqlService(sqlService)
+              .cache(DummyObject.TYPE, 2, 1, TimeUnit.MINUTES);
+        GlobCache.TypeCache typeCache = cachedSqlService.getCache().get(DummyObject.TYPE);
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+
+        CachedSqlConnection db = cachedSqlService.getDb();
+        Assert.assertEquals("hello", db.get(key1).get(DummyObject.NAME));
+        Assert.assertEquals("hello", db.get(key1).get(DummyObject.NAME));
+        Assert.assertNull(db.get(KeyBuilder.newKey(DummyObject.TYPE, 4)));
+        Assert.assertEquals(1, typeCache.getHitCount());
+        Assert.assertEquals(2, typeCache.getMissCount());
+
+        db.get(KeyBuilder.newKey(DummyObject.TYPE, 2));
+        db.get(KeyBuilder.newKey(DummyObject.TYPE, 3));
+        Assert.assertEquals(2, typeCache.size());
+        Assert.assertEquals(1, typeCache.getEvictionCount());
+
+        db.get(key1);
+        db.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+              .update(DummyObject.NAME, "updated")
+              .getRequest()
+              .run();
+        Assert.assertEquals(0, typeCache.size());
+        Assert.assertEquals("updated", db.get(key1).get(DummyObject.NAME));
+        Assert.assertEquals(0, typeCache.size());
+        db.commit();
+
+        Assert.assertEquals("updated", db.get(key1).get(DummyObject.NAME));
+        Assert.assertEquals(1, typeCache.size());
+        db.deleteByKeys(Collections.singletonList(key1));
+        db.commitAndClose();
+        db = cachedSqlService.getDb();
+        Assert.assertNull(db.get(key1));
+        db.rollbackAndClose();
+    }
+
+    @Test
+    public void testQueryCache() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1'/>" +
+                    "<dummyObject id='2' name='world' value='2.2'/>" +
+                    "<dummyObject id='3' name='world' value='3.3'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        CachedSqlService cachedSqlService = new CachedSqlService(sqlService)
+              .cacheQueries(DummyObject.TYPE)
+              .setQueryCacheLimits(10, 2);
+        QueryCache queryCache = cachedSqlService.getQueryCache();
+
+        CachedSqlConnection db = cachedSqlService.getDb();
+        Assert.assertEquals(2, db.getQueryBuilder(DummyObject.TYPE,
+              Constraints.and(Constraints.equal(DummyObject.NAME, "world"), Constraints.isNotNull(DummyObject.VALUE)))
+              .selectAll().orderAsc(DummyObject.ID).getQuery().executeAsGlobs().size());
+        Assert.assertEquals(2, db.getQueryBuilder(DummyObject.TYPE,
+              Constraints.and(Constraints.isNotNull(DummyObject.VALUE), Constraints.equal(DummyObject.NAME, "world")))
+              .selectAll().orderAsc(DummyObject.ID).getQuery().executeAsGlobs().size());
+        Assert.assertEquals(1, queryCache.getHitCount());
+        Assert.assertEquals(2, queryCache.getRowCount());
+
+        db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs();
+        Assert.assertEquals(2, queryCache.getRowCount());
+
+        db.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 3))
+              .update(DummyObject.NAME, "other")
+              .getRequest()
+              .run();
+        db.commit();
+        Assert.assertEquals(0, queryCache.getRowCount());
+        Assert.assertEquals(1, db.getQueryBuilder(DummyObject.TYPE,
+              Constraints.and(Constraints.equal(DummyObject.NAME, "world"), Constraints.isNotNull(DummyObject.VALUE)))
+              .selectAll().getQuery().executeAsGlobs().size());
+        db.commitAndClose();
+    }
+
+    @Test
+    public void testRequestRunAfterCommitInvalidates() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse("<dummyObject id='1' name='hello'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        CachedSqlService cachedSqlService = new CachedSqlService(sqlService)
+              .cache(DummyObject.TYPE, 10, 1, TimeUnit.MINUTES);
+        GlobCache.TypeCache typeCache = cachedSqlService.getCache().get(DummyObject.TYPE);
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+
+        CachedSqlConnection db = cachedSqlService.getDb();
+        SqlRequest request = db.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+              .update(DummyObject.NAME, "updated")
+              .getRequest();
+        db.commit();
+        Assert.assertEquals("hello", db.get(key1).get(DummyObject.NAME));
+        Assert.assertEquals(1, typeCache.size());
+        request.run();
+        request.close();
+        Assert.assertEquals(0, typeCache.size());
+        db.commit();
+        Assert.assertEquals("updated", db.get(key1).get(DummyObject.NAME));
+        db.commitAndClose();
+    }
+
+    @Test
+    public void testCachedGlobsAreCopied() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse("<dummyObject id='1' name='hello'/>", directory.get(GlobModel.class)));
+        sqlConnection.commit();
+        CachedSqlService cachedSqlService = new CachedSqlService(sqlService)
+              .cache(DummyObject.TYPE, 10, 1, TimeUnit.MINUTES)
+              .cacheQueries(DummyObject.TYPE);
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+
+        CachedSqlConnection db = cachedSqlService.getDb();
+        ((MutableGlob) db.get(key1)).set(DummyObject.NAME, "changed");
+        Assert.assertEquals("hello", db.get(key1).get(DummyObject.NAME));
+        ((MutableGlob) db.get(key1)).set(DummyObject.NAME, "changed");
+        Assert.assertEquals("hello", db.get(key1).get(DummyObject.NAME));
+
+        Glob glob = db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeUnique();
+        ((MutableGlob) glob).set(DummyObject.NAME, "changed");
+        glob = db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeUnique();
+        ((MutableGlob) glob).set(DummyObject.NAME, "changed");
+        Assert.assertEquals("hello", db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeUnique().get(DummyObject.NAME));
+        Assert.assertEquals(2, cachedSqlService.getQueryCache().getHitCount());
+        db.commitAndClose();
+    }
+}
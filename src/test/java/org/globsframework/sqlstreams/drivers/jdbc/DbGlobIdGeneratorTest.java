@@ -0,0 +1,59 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.metamodel.annotations.KeyField;
+import org.globsframework.metamodel.fields.IntegerField;
+import org.globsframework.metamodel.fields.StringField;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+public class DbGlobIdGeneratorTest extends DbServicesTestCase {
+
+    @Test
+    public void testConcurrentIdsAreUniqueAndReservedByBlock() throws Exception {
+        sqlConnection.createTable(IdTable.TYPE);
+        sqlConnection.emptyTable(IdTable.TYPE);
+        sqlConnection.commit();
+        DbGlobIdGenerator generator = new DbGlobIdGenerator(IdTable.TYPE, IdTable.TABLE_NAME, IdTable.ID, sqlService);
+        generator.setBlockSize(10);
+
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 100; i++) {
+            executorService.submit(() -> ids.add(generator.getNextId("dummy", 1)));
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(100, ids.size());
+
+        int first = generator.getNextId("other", 25);
+        Assert.assertEquals(0, first);
+
+        SqlConnection db = sqlService.getDb();
+        Integer reserved = db.getQueryBuilder(IdTable.TYPE, Constraints.equal(IdTable.TABLE_NAME, "dummy"))
+              .select(IdTable.ID)
+              .getQuery().executeUnique().get(IdTable.ID);
+        Assert.assertTrue(reserved >= 100);
+        Assert.assertTrue(reserved <= 120);
+        db.rollbackAndClose();
+    }
+
+    public static class IdTable {
+        public static GlobType TYPE;
+
+        @KeyField
+        public static StringField TABLE_NAME;
+
+        public static IntegerField ID;
+
+        static {
+            GlobTypeLoaderFactory.create(IdTable.class).load();
+        }
+    }
+}
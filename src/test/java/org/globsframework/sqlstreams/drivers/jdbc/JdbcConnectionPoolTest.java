@@ -0,0 +1,108 @@
+package org.globsframework.sqlstreams.drivers.jdbc;
+
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.Key;
+import org.globsframework.model.KeyBuilder;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
+import org.globsframework.utils.exceptions.UnexpectedApplicationState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcConnectionPoolTest extends DbServicesTestCase {
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        service.setConnectionPoolSize(0, 4);
+        SqlConnection db = service.getDb();
+        Connection connection = db.getConnection();
+        db.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, 1)
+              .set(DummyObject.NAME, "hello")
+              .getRequest().run();
+        db.commitAndClose();
+
+        SqlConnection other = service.getDb();
+        Assert.assertSame(connection, other.getConnection());
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 1), DummyObject.NAME, "hello", other);
+        other.rollbackAndClose();
+        service.close();
+    }
+
+    @Test
+    public void testNoPoolByDefault() throws Exception {
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        Assert.assertNull(service.getConnectionPool());
+        SqlConnection db = service.getDb();
+        Connection connection = db.getConnection();
+        db.rollbackAndClose();
+        Assert.assertTrue(connection.isClosed());
+        try {
+            db.getCreateBuilder(DummyObject.TYPE);
+            Assert.fail();
+        } catch (UnexpectedApplicationState e) {
+        }
+        try {
+            db.getDeleteRequest(DummyObject.TYPE);
+            Assert.fail();
+        } catch (UnexpectedApplicationState e) {
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        service.setConnectionPoolSize(0, 1);
+        service.getConnectionPool().setBorrowTimeout(10);
+        SqlConnection db = service.getDb();
+        try {
+            service.getDb();
+            Assert.fail();
+        } catch (UnexpectedApplicationState e) {
+        }
+        db.rollbackAndClose();
+        service.getDb().rollbackAndClose();
+        Assert.assertEquals(1, service.getConnectionPool().getTotalCount());
+        service.close();
+    }
+
+    @Test
+    public void testParallelKeyReadsDoNotWaitForThePool() throws Exception {
+        JdbcSqlService service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        service.setConnectionPoolSize(0, 1);
+        service.setParallelKeyReads(true);
+        service.getConnectionPool().setBorrowTimeout(10);
+        SqlConnection db = service.getDb();
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        BulkDbRequest request = db.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .getBulkRequest();
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            id.setValue(i);
+            request.run();
+            keys.add(KeyBuilder.newKey(DummyObject.TYPE, i));
+        }
+        request.close();
+        db.commitAndClose();
+
+        db = service.getDb();
+        Assert.assertEquals(2500, db.getByKeys(DummyObject.TYPE, keys).size());
+        db.rollbackAndClose();
+        service.close();
+
+        service = new JdbcSqlService("jdbc:hsqldb:.", "sa", "");
+        service.setConnectionPoolSize(0, 3);
+        service.setParallelKeyReads(true);
+        db = service.getDb();
+        Assert.assertEquals(2500, db.getByKeys(DummyObject.TYPE, keys).size());
+        db.rollbackAndClose();
+        service.close();
+    }
+}
@@ -4,14 +4,20 @@ import org.globsframework.metamodel.GlobModel;
 import org.globsframework.metamodel.GlobType;
 import org.globsframework.metamodel.GlobTypeLoaderFactory;
 import org.globsframework.metamodel.annotations.FieldNameAnnotation;
+import org.globsframework.metamodel.annotations.KeyField;
 import org.globsframework.metamodel.fields.DoubleField;
 import org.globsframework.metamodel.fields.IntegerField;
+import org.globsframework.metamodel.fields.LongField;
 import org.globsframework.metamodel.fields.StringField;
 import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
 import org.globsframework.model.DummyObject;
 import org.globsframework.model.DummyObject2;
+import org.globsframework.model.Key;
+import org.globsframework.model.KeyBuilder;
 import org.globsframework.model.format.GlobPrinter;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.FetchStrategy;
 import org.globsframework.sqlstreams.SelectBuilder;
 import org.globsframework.sqlstreams.SelectQuery;
 import org.globsframework.sqlstreams.SqlConnection;
@@ -19,10 +25,13 @@ import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.drivers.jdbc.request.SqlQueryBuilder;
 import org.globsframework.sqlstreams.exceptions.SqlException;
+import org.globsframework.sqlstreams.metadata.DbChecker;
 import org.globsframework.streams.GlobStream;
+import org.globsframework.streams.accessors.DoubleAccessor;
 import org.globsframework.streams.accessors.IntegerAccessor;
 import org.globsframework.streams.accessors.StringAccessor;
 import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
+import org.globsframework.streams.accessors.utils.ValueStringAccessor;
 import org.globsframework.utils.Ref;
 import org.globsframework.utils.Utils;
 import org.globsframework.xml.XmlGlobStreamReader;
@@ -31,7 +40,16 @@ import org.junit.Test;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.globsframework.sqlstreams.constraints.Constraints.and;
 import static org.junit.Assert.*;
@@ -82,6 +100,115 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
 
     }
 
+    @Test
+    public void testSameQueryShapeReuseStatement() throws Exception {
+        SqlConnection sqlConnection = init();
+        SqlStatementCache statementCache = ((JdbcConnection) sqlConnection).getStatementCache();
+        Glob hello = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+              .select(DummyObject.NAME)
+              .getQuery().executeUnique();
+        assertEquals("hello", hello.get(DummyObject.NAME));
+        assertEquals(1, statementCache.size());
+
+        Glob world = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 2))
+              .select(DummyObject.NAME)
+              .getQuery().executeUnique();
+        assertEquals("world", world.get(DummyObject.NAME));
+        assertEquals(1, statementCache.size());
+    }
+
+    @Test
+    public void testSameQueryShapeReuseCompiledSelect() throws Exception {
+        SqlConnection sqlConnection = init();
+        CompiledSelectCache compiledSelectCache = ((JdbcConnection) sqlConnection).getCompiledSelectCache();
+        int size = compiledSelectCache.size();
+        for (int i = 1; i <= 2; i++) {
+            Glob glob = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, i))
+                  .select(DummyObject.ID)
+                  .select(DummyObject.NAME)
+                  .getQuery().executeUnique();
+            assertEquals(i, glob.get(DummyObject.ID).intValue());
+        }
+        assertEquals(size + 1, compiledSelectCache.size());
+
+        sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.in(DummyObject.ID, Utils.set(1, 2)))
+              .select(DummyObject.NAME)
+              .getQuery().executeAsGlobs();
+        assertEquals(size + 2, compiledSelectCache.size());
+    }
+
+    @Test
+    public void testExecuteAsStream() throws Exception {
+        SqlConnection sqlConnection = init();
+        SelectQuery query = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+              .select(DummyObject.NAME)
+              .orderAsc(DummyObject.ID)
+              .fetchSize(1)
+              .getQuery();
+        try (Stream<Glob> stream = ((SqlSelectQuery) query).executeAsStream()) {
+            assertEquals(Arrays.asList("hello", "world"),
+                  stream.map(glob -> glob.get(DummyObject.NAME)).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testFetchStrategy() throws Exception {
+        SqlConnection sqlConnection = init();
+        assertEquals(FetchStrategy.BUFFERED, ((JdbcConnection) sqlConnection).getDefaultFetchStrategy());
+        for (FetchStrategy strategy : FetchStrategy.values()) {
+            GlobList globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                  .select(DummyObject.NAME)
+                  .orderAsc(DummyObject.ID)
+                  .fetchStrategy(strategy)
+                  .fetchSize(1)
+                  .getQuery().executeAsGlobs();
+            assertEquals(2, globs.size());
+        }
+        ((JdbcConnection) sqlConnection).setDefaultFetchStrategy(FetchStrategy.CURSOR, 10);
+        assertEquals(FetchStrategy.CURSOR, ((JdbcConnection) sqlConnection).getDefaultFetchStrategy());
+        assertEquals(2, sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+    }
+
+    @Test
+    public void testExecuteAsFuture() throws Exception {
+        SqlConnection sqlConnection = init();
+        sqlConnection.commit();
+        List<String> names = new ArrayList<>();
+        sqlConnection.getQueryBuilder(DummyObject.TYPE)
+              .select(DummyObject.NAME)
+              .orderAsc(DummyObject.ID)
+              .getQuery()
+              .executeAsFutureStream(glob -> names.add(glob.get(DummyObject.NAME)))
+              .get();
+        assertEquals(Arrays.asList("hello", "world"), names);
+
+        GlobList globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+              .selectAll()
+              .getQuery()
+              .executeAsFutureGlobs()
+              .get();
+        assertEquals(2, globs.size());
+    }
+
+    @Test
+    public void testPrimitiveAccessorsAndNull() throws Exception {
+        SqlConnection sqlConnection = init();
+        SelectBuilder queryBuilder = sqlConnection.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1));
+        IntegerAccessor id = queryBuilder.retrieve(DummyObject.ID);
+        IntegerAccessor count = queryBuilder.retrieve(DummyObject.COUNT);
+        DoubleAccessor value = queryBuilder.retrieve(DummyObject.VALUE);
+        GlobStream globStream = queryBuilder.getQuery().execute();
+        assertTrue(globStream.next());
+        assertTrue(count.wasNull());
+        assertEquals(-1, count.getValue(-1));
+        assertNull(count.getInteger());
+        assertEquals(1, id.getValue(-1));
+        assertFalse(id.wasNull());
+        assertEquals(1.1, value.getValue(0.), 0.0001);
+        assertFalse(value.wasNull());
+        assertFalse(globStream.next());
+    }
+
     @Test
     public void testAnd() throws Exception {
         SqlConnection sqlConnection = init();
@@ -264,6 +391,66 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
         return sqlConnection;
     }
 
+    @Test
+    public void testGetByKeys() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueStringAccessor name = new ValueStringAccessor(null);
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .set(DummyObject.NAME, name)
+              .getBulkRequest();
+        for (int i = 0; i < 2500; i++) {
+            id.setValue(i);
+            name.setValue("name " + i);
+            request.run();
+        }
+        request.close();
+        sqlConnection.commit();
+
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 2600; i += 2) {
+            keys.add(KeyBuilder.newKey(DummyObject.TYPE, i));
+        }
+        Map<Key, Glob> globs = sqlConnection.getByKeys(DummyObject.TYPE, keys, DummyObject.NAME);
+        assertEquals(1250, globs.size());
+        assertEquals("name 2498", globs.get(KeyBuilder.newKey(DummyObject.TYPE, 2498)).get(DummyObject.NAME));
+        assertNull(globs.get(KeyBuilder.newKey(DummyObject.TYPE, 2500)));
+
+        sqlConnection.deleteByKeys(Collections.singletonList(KeyBuilder.newKey(DummyObject.TYPE, 0)));
+        assertEquals(1249, sqlConnection.getByKeys(DummyObject.TYPE, keys).size());
+    }
+
+    @Test
+    public void startAfter() {
+        populate(sqlConnection,
+              XmlGlobStreamReader.parse(
+                    "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                          "<dummyObject id='3' name='world' value='2.2' present='false'/>" +
+                          "<dummyObject id='4' name='world' value='2.2' present='false'/>" +
+                          "<dummyObject id='5' name='world' value='2.2' present='false'/>" +
+                          "<dummyObject id='6' name='world' value='2.2' present='false'/>" +
+                          "<dummyObject id='7' name='hello' value='2.2' present='false'/>", directory.get(GlobModel.class)));
+        List<Integer> ids = new ArrayList<>();
+        Glob last = null;
+        while (true) {
+            SelectBuilder builder = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+                  .select(DummyObject.ID)
+                  .select(DummyObject.NAME)
+                  .orderAsc(DummyObject.NAME)
+                  .top(2);
+            if (last != null) {
+                builder.startAfter(last);
+            }
+            GlobList page = builder.getQuery().executeAsGlobs();
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(glob -> ids.add(glob.get(DummyObject.ID)));
+            last = page.get(page.size() - 1);
+        }
+        assertEquals(Arrays.asList(1, 7, 3, 4, 5, 6), ids);
+    }
+
     @Test
     public void distinct() {
         populate(sqlConnection,
@@ -334,4 +521,62 @@ public class SqlSelectQueryTest extends DbServicesTestCase {
                 "| 7  | 2.2   | CASH_OUT |\n" +
                 "\n");
     }
+
+    @Test
+    public void testDateAndTimestampColumnsReadAsIntegerAndLong() throws Exception {
+        Statement statement = sqlConnection.getConnection().createStatement();
+        String tableName = sqlService.getTableName(DatedObject.TYPE);
+        if (new DbChecker(sqlService, sqlConnection).tableExists(DatedObject.TYPE)) {
+            statement.executeUpdate("DELETE FROM " + tableName);
+        } else {
+            statement.executeUpdate("CREATE TABLE " + tableName + " (" +
+                                    sqlService.getColumnName(DatedObject.ID) + " INTEGER, " +
+                                    sqlService.getColumnName(DatedObject.DAY) + " DATE, " +
+                                    sqlService.getColumnName(DatedObject.DAY_AS_LONG) + " DATE, " +
+                                    sqlService.getColumnName(DatedObject.TIME_AS_DAY) + " TIMESTAMP, " +
+                                    sqlService.getColumnName(DatedObject.TIME_AS_MILLIS) + " TIMESTAMP, " +
+                                    "PRIMARY KEY (" + sqlService.getColumnName(DatedObject.ID) + "))");
+        }
+        statement.executeUpdate("INSERT INTO " + tableName + " VALUES (1, '2020-01-02', '2020-01-02', " +
+                                "'2020-01-02 10:00:00', '2020-01-02 10:00:00')");
+        statement.executeUpdate("INSERT INTO " + tableName + " VALUES (2, NULL, NULL, NULL, NULL)");
+        statement.close();
+
+        GlobList list = sqlConnection.getQueryBuilder(DatedObject.TYPE)
+              .selectAll()
+              .orderAsc(DatedObject.ID)
+              .getQuery()
+              .executeAsGlobs();
+        Assert.assertEquals(2, list.size());
+        long epochDay = LocalDate.of(2020, 1, 2).toEpochDay();
+        Glob dated = list.get(0);
+        Assert.assertEquals(epochDay, dated.get(DatedObject.DAY).longValue());
+        Assert.assertEquals(epochDay, dated.get(DatedObject.DAY_AS_LONG).longValue());
+        Assert.assertEquals(epochDay, dated.get(DatedObject.TIME_AS_DAY).longValue());
+        Assert.assertEquals(Timestamp.valueOf("2020-01-02 10:00:00").getTime(), dated.get(DatedObject.TIME_AS_MILLIS).longValue());
+        Glob empty = list.get(1);
+        Assert.assertNull(empty.get(DatedObject.DAY));
+        Assert.assertNull(empty.get(DatedObject.DAY_AS_LONG));
+        Assert.assertNull(empty.get(DatedObject.TIME_AS_DAY));
+        Assert.assertNull(empty.get(DatedObject.TIME_AS_MILLIS));
+    }
+
+    public static class DatedObject {
+        public static GlobType TYPE;
+
+        @KeyField
+        public static IntegerField ID;
+
+        public static IntegerField DAY;
+
+        public static LongField DAY_AS_LONG;
+
+        public static IntegerField TIME_AS_DAY;
+
+        public static LongField TIME_AS_MILLIS;
+
+        static {
+            GlobTypeLoaderFactory.create(DatedObject.class).load();
+        }
+    }
 }
@@ -2,7 +2,9 @@ package org.globsframework.sqlstreams.drivers.jdbc.request;
 
 import org.globsframework.model.KeyBuilder;
 import org.globsframework.model.DummyObject;
+import org.globsframework.sqlstreams.BulkDbRequest;
 import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sqlstreams.drivers.jdbc.JdbcConnection;
 import org.globsframework.streams.accessors.utils.ValueBlobAccessor;
 import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
 import org.globsframework.streams.accessors.utils.ValueStringAccessor;
@@ -24,4 +26,26 @@ public class SqlCreateBuilderTest extends DbServicesTestCase {
         Assert.assertEquals("world",
               new String((byte[]) getNextValue(KeyBuilder.newKey(DummyObject.TYPE, 1), sqlConnection, DummyObject.PASSWORD)));
     }
+
+    @Test
+    public void testBulkCreate() throws Exception {
+        ((JdbcConnection) sqlConnection).setBulkBatchSize(3);
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueStringAccessor name = new ValueStringAccessor("");
+        BulkDbRequest request = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .set(DummyObject.NAME, name)
+              .getBulkRequest();
+        for (int i = 0; i < 7; i++) {
+            id.setValue(i);
+            name.setValue("name " + i);
+            request.run();
+        }
+        Assert.assertEquals(6, sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+        request.flush();
+        request.close();
+        for (int i = 0; i < 7; i++) {
+            checkDb(KeyBuilder.newKey(DummyObject.TYPE, i), DummyObject.NAME, "name " + i, sqlConnection);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.globsframework.metamodel.GlobModel;
 import org.globsframework.model.GlobList;
 import org.globsframework.model.DummyObject;
 import org.globsframework.model.DummyObject2;
+import org.globsframework.model.KeyBuilder;
 import org.globsframework.sqlstreams.constraints.Constraint;
 import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
@@ -11,6 +12,8 @@ import org.globsframework.streams.GlobStream;
 import org.globsframework.xml.XmlGlobStreamReader;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 
 public class SqlDeleteBuilderTest extends DbServicesTestCase {
@@ -41,4 +44,23 @@ public class SqlDeleteBuilderTest extends DbServicesTestCase {
         assertEquals(2, globs.get(0).get(DummyObject.ID).intValue());
         assertEquals(1, sqlConnection.getQueryBuilder(DummyObject2.TYPE).withKeys().getQuery().executeAsGlobs().size());
     }
+
+    @Test
+    public void testDeleteByKeys() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                    "<dummyObject id='2' name='world' value='1.1' present='true'/>" +
+                    "<dummyObject id='3' name='world' value='1.1' present='true'/>", directory.get(GlobModel.class)));
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject2 id='1' label='hello'/>", directory.get(GlobModel.class)));
+        sqlConnection.deleteByKeys(Arrays.asList(KeyBuilder.newKey(DummyObject.TYPE, 1),
+              KeyBuilder.newKey(DummyObject2.TYPE, 1),
+              KeyBuilder.newKey(DummyObject.TYPE, 3)));
+        GlobList globs = sqlConnection.getQueryBuilder(DummyObject.TYPE)
+              .withKeys()
+              .getQuery().executeAsGlobs();
+        assertEquals(1, globs.size());
+        assertEquals(2, globs.get(0).get(DummyObject.ID).intValue());
+        assertEquals(0, sqlConnection.getQueryBuilder(DummyObject2.TYPE).withKeys().getQuery().executeAsGlobs().size());
+    }
 }
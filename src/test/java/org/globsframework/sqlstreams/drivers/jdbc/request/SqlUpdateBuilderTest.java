@@ -1,6 +1,7 @@
 package org.globsframework.sqlstreams.drivers.jdbc.request;
 
 import org.globsframework.metamodel.GlobModel;
+import org.globsframework.model.FieldValuesBuilder;
 import org.globsframework.model.Key;
 import org.globsframework.model.KeyBuilder;
 import org.globsframework.model.DummyObject;
@@ -9,6 +10,7 @@ import org.globsframework.sqlstreams.UpdateBuilder;
 import org.globsframework.sqlstreams.constraints.Constraints;
 import org.globsframework.sqlstreams.constraints.impl.KeyConstraint;
 import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sqlstreams.drivers.jdbc.SqlUpdateRequest;
 import org.globsframework.streams.GlobStream;
 import org.globsframework.streams.accessors.utils.ValueDoubleAccessor;
 import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
@@ -16,6 +18,8 @@ import org.globsframework.xml.XmlGlobStreamReader;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 public class SqlUpdateBuilderTest extends DbServicesTestCase {
 
     @Test
@@ -71,4 +75,38 @@ public class SqlUpdateBuilderTest extends DbServicesTestCase {
               .run();
         checkDb(key1, DummyObject.NAME, "world", sqlConnection);
     }
+
+    @Test
+    public void testUpdateByKeys() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                    "<dummyObject id='2' name='hello' value='0.0' present='true'/>" +
+                    "<dummyObject id='3' name='hello' value='0.0' present='true'/>", directory.get(GlobModel.class)));
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+        Key key3 = KeyBuilder.newKey(DummyObject.TYPE, 3);
+        sqlConnection.updateByKeys(Arrays.asList(key1, key3),
+              FieldValuesBuilder.init().setValue(DummyObject.NAME, "patched").get());
+        checkDb(key1, DummyObject.NAME, "patched", sqlConnection);
+        checkDb(key1, DummyObject.VALUE, 1.1, sqlConnection);
+        checkDb(KeyBuilder.newKey(DummyObject.TYPE, 2), DummyObject.NAME, "hello", sqlConnection);
+        checkDb(key3, DummyObject.NAME, "patched", sqlConnection);
+    }
+
+    @Test
+    public void testExecuteWithKey() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                    "<dummyObject id='2' name='hello' value='0.0' present='true'/>", directory.get(GlobModel.class)));
+        SqlUpdateRequest request = (SqlUpdateRequest) sqlConnection.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "hello"))
+              .update(DummyObject.VALUE, 3.3)
+              .getRequest();
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+        Key key2 = KeyBuilder.newKey(DummyObject.TYPE, 2);
+        request.execute(key1);
+        checkDb(key1, DummyObject.VALUE, 3.3, sqlConnection);
+        checkDb(key2, DummyObject.VALUE, 0.0, sqlConnection);
+        request.execute(key2);
+        checkDb(key2, DummyObject.VALUE, 3.3, sqlConnection);
+        request.close();
+    }
 }
@@ -14,7 +14,10 @@ import org.globsframework.metamodel.fields.DoubleField;
 import org.globsframework.metamodel.fields.IntegerField;
 import org.globsframework.metamodel.fields.StringField;
 import org.globsframework.metamodel.index.MultiFieldUniqueIndex;
+import org.globsframework.model.FieldValuesBuilder;
+import org.globsframework.model.Glob;
 import org.globsframework.model.GlobList;
+import org.globsframework.model.Key;
 import org.globsframework.model.KeyBuilder;
 import org.globsframework.model.repository.DefaultGlobRepository;
 import org.globsframework.sqlstreams.SqlConnection;
@@ -26,9 +29,12 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.globsframework.sqlstreams.drivers.mongodb.MongoSelectTest.DummyObject.*;
 
@@ -58,6 +64,71 @@ public class MongoSelectTest {
 
     }
 
+    @Test
+    public void SelectAsFuture() throws Exception {
+        InitDb initDb = new InitDb().invoke();
+        SqlConnection mangoDbConnection = new MongoDbConnection(initDb.getDatabase(), initDb.getSqlService());
+        CompletableFuture<GlobList> globs = mangoDbConnection.getQueryBuilder(DummyObject.TYPE, Constraints.isNull(DummyObject.NAME_2))
+              .selectAll()
+              .getQuery()
+              .executeAsFutureGlobs();
+        Assert.assertEquals(3, globs.get().size());
+    }
+
+    @Test
+    public void startAfter() {
+        InitDb initDb = new InitDb().invoke();
+        SqlConnection mangoDbConnection = new MongoDbConnection(initDb.getDatabase(), initDb.getSqlService());
+        GlobList firstPage = mangoDbConnection.getQueryBuilder(DummyObject.TYPE)
+              .selectAll()
+              .orderDesc(VALUE)
+              .orderAsc(DummyObject.ID)
+              .top(3)
+              .getQuery()
+              .executeAsGlobs();
+        Assert.assertEquals(Arrays.asList(3, 4, 2), firstPage.stream().map(glob -> glob.get(DummyObject.ID)).collect(Collectors.toList()));
+
+        GlobList secondPage = mangoDbConnection.getQueryBuilder(DummyObject.TYPE)
+              .selectAll()
+              .orderDesc(VALUE)
+              .top(3)
+              .startAfter(firstPage.get(2))
+              .getQuery()
+              .executeAsGlobs();
+        Assert.assertEquals(1, secondPage.size());
+        Assert.assertEquals(1, secondPage.get(0).get(DummyObject.ID).intValue());
+    }
+
+    @Test
+    public void updateAndDeleteByKeys() {
+        InitDb initDb = new InitDb().invoke();
+        SqlConnection mangoDbConnection = new MongoDbConnection(initDb.getDatabase(), initDb.getSqlService());
+        mangoDbConnection.updateByKeys(Arrays.asList(KeyBuilder.newKey(DummyObject.TYPE, 1), KeyBuilder.newKey(DummyObject.TYPE, 2)),
+              FieldValuesBuilder.init().setValue(DummyObject.NAME, "patched").get());
+        mangoDbConnection.deleteByKeys(Arrays.asList(KeyBuilder.newKey(DummyObject.TYPE, 2), KeyBuilder.newKey(DummyObject.TYPE, 3)));
+        GlobList globs = mangoDbConnection.getQueryBuilder(DummyObject.TYPE)
+              .selectAll()
+              .orderAsc(DummyObject.ID)
+              .getQuery()
+              .executeAsGlobs();
+        Assert.assertEquals(2, globs.size());
+        Assert.assertEquals("patched", globs.get(0).get(DummyObject.NAME));
+        Assert.assertEquals("my name", globs.get(1).get(DummyObject.NAME));
+    }
+
+    @Test
+    public void getByKeys() {
+        InitDb initDb = new InitDb().invoke();
+        SqlConnection mangoDbConnection = new MongoDbConnection(initDb.getDatabase(), initDb.getSqlService());
+        Key key1 = KeyBuilder.newKey(DummyObject.TYPE, 1);
+        Key key3 = KeyBuilder.newKey(DummyObject.TYPE, 3);
+        Map<Key, Glob> globs = mangoDbConnection.getByKeys(DummyObject.TYPE,
+              Arrays.asList(key1, key3, KeyBuilder.newKey(DummyObject.TYPE, 100)), DummyObject.NAME);
+        Assert.assertEquals(2, globs.size());
+        Assert.assertEquals(1, globs.get(key1).get(DummyObject.ID).intValue());
+        Assert.assertNotNull(globs.get(key3));
+    }
+
     @Test
     public void IsNullIsExist() {
         InitDb initDb = new InitDb().invoke();
@@ -0,0 +1,110 @@
+package org.globsframework.sqlstreams.metadata;
+
+import org.globsframework.metamodel.GlobType;
+import org.globsframework.metamodel.GlobTypeLoader;
+import org.globsframework.metamodel.GlobTypeLoaderFactory;
+import org.globsframework.metamodel.annotations.KeyField;
+import org.globsframework.metamodel.fields.IntegerField;
+import org.globsframework.metamodel.fields.StringField;
+import org.globsframework.metamodel.index.MultiFieldUniqueIndex;
+import org.globsframework.metamodel.index.NotUniqueIndex;
+import org.globsframework.model.DummyObject;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.sqlstreams.exceptions.ConstraintViolation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Statement;
+import java.util.List;
+
+public class DbCheckerTest extends DbServicesTestCase {
+
+    @Test
+    public void testModelIndicesAreCreatedWithTheTable() throws Exception {
+        DbChecker checker = new DbChecker(sqlService, sqlConnection);
+        Assert.assertTrue(checker.indexExists(DummyObject.TYPE, DummyObject.DATE_INDEX));
+        Assert.assertTrue(checker.getMissingIndices(DummyObject.TYPE).isEmpty());
+    }
+
+    @Test
+    public void testMultiFieldUniqueIndex() throws Exception {
+        sqlConnection.createTable(IndexedObject.TYPE);
+        DbChecker checker = new DbChecker(sqlService, sqlConnection);
+        Assert.assertTrue(checker.indexExists(IndexedObject.TYPE, IndexedObject.NAME_INDEX));
+        insert(1, "name", "other");
+        try {
+            insert(2, "name", "other");
+            Assert.fail();
+        } catch (ConstraintViolation e) {
+        }
+        sqlConnection.emptyTable(IndexedObject.TYPE);
+        sqlConnection.commit();
+    }
+
+    @Test
+    public void testMissingIndicesAreReported() throws Exception {
+        DbChecker checker = new DbChecker(sqlService, sqlConnection);
+        if (!checker.tableExists(NotIndexedObject.TYPE)) {
+            Statement statement = sqlConnection.getConnection().createStatement();
+            statement.executeUpdate("CREATE TABLE " + sqlService.getTableName(NotIndexedObject.TYPE) + " (" +
+                                    sqlService.getColumnName(NotIndexedObject.ID) + " INTEGER, " +
+                                    sqlService.getColumnName(NotIndexedObject.NAME) + " VARCHAR(20), " +
+                                    "PRIMARY KEY (" + sqlService.getColumnName(NotIndexedObject.ID) + "))");
+            statement.close();
+        }
+        List<?> missing = checker.getMissingIndices(NotIndexedObject.TYPE);
+        Assert.assertEquals(1, missing.size());
+        Assert.assertSame(NotIndexedObject.NAME_INDEX, missing.get(0));
+        Assert.assertFalse(checker.indexExists(NotIndexedObject.TYPE, NotIndexedObject.NAME_INDEX));
+    }
+
+    private void insert(int id, String name, String name2) {
+        SqlRequest request = sqlConnection.getCreateBuilder(IndexedObject.TYPE)
+              .set(IndexedObject.ID, id)
+              .set(IndexedObject.NAME, name)
+              .set(IndexedObject.NAME_2, name2)
+              .getRequest();
+        try {
+            request.run();
+        } finally {
+            request.close();
+        }
+    }
+
+    public static class IndexedObject {
+        public static GlobType TYPE;
+
+        @KeyField
+        public static IntegerField ID;
+
+        public static StringField NAME;
+
+        public static StringField NAME_2;
+
+        public static MultiFieldUniqueIndex NAME_INDEX;
+
+        static {
+            GlobTypeLoader loader = GlobTypeLoaderFactory.create(IndexedObject.class);
+            loader.load();
+            loader.defineMultiFieldUniqueIndex(NAME_INDEX, NAME, NAME_2);
+        }
+    }
+
+    public static class NotIndexedObject {
+        public static GlobType TYPE;
+
+        @KeyField
+        public static IntegerField ID;
+
+        public static StringField NAME;
+
+        public static NotUniqueIndex NAME_INDEX;
+
+        static {
+            GlobTypeLoader loader = GlobTypeLoaderFactory.create(NotIndexedObject.class);
+            loader.load();
+            loader.defineNonUniqueIndex(NAME_INDEX, NAME);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.globsframework.sqlstreams.metrics;
+
+import org.globsframework.model.DummyObject;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryMetricsTest extends DbServicesTestCase {
+
+    @Test
+    public void testMetricsByStatementShape() throws Exception {
+        QueryMetrics metrics = new QueryMetrics();
+        sqlService.addQueryListener(metrics);
+        SqlConnection db = sqlService.getDb();
+        for (int i = 0; i < 3; i++) {
+            SqlRequest request = db.getCreateBuilder(DummyObject.TYPE)
+                  .set(DummyObject.ID, i)
+                  .set(DummyObject.NAME, "name " + i)
+                  .getRequest();
+            request.run();
+            request.close();
+        }
+        for (int i = 0; i < 3; i++) {
+            db.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, i))
+                  .selectAll()
+                  .getQuery().executeUnique();
+        }
+        Assert.assertEquals(3, db.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().executeAsGlobs().size());
+        SqlRequest update = db.getUpdateBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1))
+              .update(DummyObject.NAME, "updated")
+              .getRequest();
+        update.run();
+        update.close();
+        SqlRequest delete = db.getDeleteRequest(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 2));
+        delete.run();
+        delete.close();
+        db.commitAndClose();
+        sqlService.removeQueryListener(metrics);
+
+        List<QueryMetrics.StatementMetrics> creates = get(metrics, QueryListener.Kind.CREATE);
+        Assert.assertEquals(1, creates.size());
+        Assert.assertEquals(3, creates.get(0).getCount());
+        Assert.assertEquals(3, creates.get(0).getRows());
+        Assert.assertEquals(3, creates.get(0).getPrepareHistogram().getTotalCount());
+
+        List<QueryMetrics.StatementMetrics> selects = get(metrics, QueryListener.Kind.SELECT);
+        Assert.assertEquals(2, selects.size());
+        QueryMetrics.StatementMetrics byKey = selects.get(0).getCount() == 3 ? selects.get(0) : selects.get(1);
+        QueryMetrics.StatementMetrics all = selects.get(0) == byKey ? selects.get(1) : selects.get(0);
+        Assert.assertTrue(byKey.getShape(), byKey.getShape().contains("?"));
+        Assert.assertEquals(3, byKey.getCount());
+        Assert.assertEquals(3, byKey.getRows());
+        Assert.assertEquals(3, byKey.getExecuteHistogram().getTotalCount());
+        Assert.assertEquals(1, all.getCount());
+        Assert.assertEquals(3, all.getRows());
+
+        List<QueryMetrics.StatementMetrics> updates = get(metrics, QueryListener.Kind.UPDATE);
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals(1, updates.get(0).getRows());
+        List<QueryMetrics.StatementMetrics> deletes = get(metrics, QueryListener.Kind.DELETE);
+        Assert.assertEquals(1, deletes.size());
+        Assert.assertEquals(1, deletes.get(0).getRows());
+    }
+
+    @Test
+    public void testShapesAreNormalizedAndBounded() throws Exception {
+        QueryMetrics metrics = new QueryMetrics(QueryMetrics.DEFAULT_SIGNIFICANT_DIGITS, 2);
+        metrics.onStatement(QueryListener.Kind.SELECT, "SELECT ID FROM T WHERE NAME LIKE '%a%' AND ID IN (?, ?)", 0, 10, 1, -1, null);
+        metrics.onStatement(QueryListener.Kind.SELECT, "SELECT ID FROM T WHERE NAME LIKE '%it''s%' AND ID IN (?)", 0, 10, 1, -1, null);
+        metrics.onStatement(QueryListener.Kind.CREATE, "INSERT INTO T (ID, NAME) VALUES (12, 'b')", 0, 10, 1, -1, null);
+        metrics.onStatement(QueryListener.Kind.DELETE, "DELETE FROM T WHERE ID = ?", 0, 10, 1, -1, null);
+        metrics.onStatement(QueryListener.Kind.DELETE, "DELETE FROM T", 0, 10, 1, -1, null);
+        metrics.onStatement(QueryListener.Kind.CREATE, "INSERT INTO T (ID, NAME) VALUES (13, 'c')", 0, 10, 1, -1, null);
+
+        Assert.assertEquals(3, metrics.getStatements().size());
+        QueryMetrics.StatementMetrics select = metrics.get("SELECT ID FROM T WHERE NAME LIKE '%b%' AND ID IN (?, ?, ?)");
+        Assert.assertEquals("SELECT ID FROM T WHERE NAME LIKE ? AND ID IN (?...)", select.getShape());
+        Assert.assertEquals(2, select.getCount());
+        Assert.assertEquals(2, metrics.get("INSERT INTO T (ID, NAME) VALUES (1, 'a')").getCount());
+        Assert.assertEquals(2, metrics.get("DELETE " + QueryMetrics.OTHER_SHAPE).getCount());
+    }
+
+    private static List<QueryMetrics.StatementMetrics> get(QueryMetrics metrics, QueryListener.Kind kind) {
+        List<QueryMetrics.StatementMetrics> result = new ArrayList<>();
+        for (QueryMetrics.StatementMetrics statementMetrics : metrics.getStatements()) {
+            if (statementMetrics.getKind() == kind) {
+                result.add(statementMetrics);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package org.globsframework.sqlstreams.metrics;
+
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.Glob;
+import org.globsframework.sqlstreams.SqlConnection;
+import org.globsframework.sqlstreams.SqlRequest;
+import org.globsframework.sqlstreams.constraints.Constraints;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.streams.accessors.utils.ValueIntegerAccessor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class SlowQueryLogTest extends DbServicesTestCase {
+
+    @Test
+    public void testSqlAndBoundValuesAreLogged() throws Exception {
+        Path path = Files.createTempFile("slowQuery", ".log");
+        SlowQueryLog slowQueryLog = new SlowQueryLog(path, 0, TimeUnit.MILLISECONDS);
+        sqlService.addQueryListener(slowQueryLog);
+        SqlConnection db = sqlService.getDb();
+        SqlRequest request = db.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, 1)
+              .set(DummyObject.NAME, "some name")
+              .getRequest();
+        request.run();
+        request.close();
+        db.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "some name"))
+              .selectAll()
+              .getQuery().executeUnique();
+        db.commitAndClose();
+        sqlService.removeQueryListener(slowQueryLog);
+        slowQueryLog.close();
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Files.delete(path);
+        String[] lines = content.split("\n");
+        Assert.assertEquals(content, 2, lines.length);
+        Assert.assertTrue(lines[0], lines[0].contains("CREATE") && lines[0].contains("'some name'"));
+        Assert.assertTrue(lines[1], lines[1].contains("SELECT") && lines[1].contains("?") && lines[1].contains("parameters=['some name']"));
+        Assert.assertEquals(2, slowQueryLog.getSlowCount());
+    }
+
+    @Test
+    public void testPlanIsAdded() throws Exception {
+        Path path = Files.createTempFile("slowQuery", ".log");
+        SlowQueryLog slowQueryLog = new SlowQueryLog(path, 0, TimeUnit.MILLISECONDS)
+              .explain(sqlService);
+        sqlService.addQueryListener(slowQueryLog);
+        SqlConnection db = sqlService.getDb();
+        db.getQueryBuilder(DummyObject.TYPE, Constraints.equal(DummyObject.NAME, "some name"))
+              .selectAll()
+              .getQuery().executeAsGlobs();
+        SqlRequest delete = db.getDeleteRequest(DummyObject.TYPE, Constraints.equal(DummyObject.ID, 1));
+        delete.run();
+        delete.close();
+        db.commitAndClose();
+        sqlService.removeQueryListener(slowQueryLog);
+        slowQueryLog.close();
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Files.delete(path);
+        String[] lines = content.split("\n");
+        Assert.assertEquals(content, 2, lines.length);
+        String selectLine = lines[0].contains("SELECT") ? lines[0] : lines[1];
+        String deleteLine = lines[0].contains("DELETE") ? lines[0] : lines[1];
+        Assert.assertTrue(selectLine, selectLine.contains("plan=") && selectLine.contains("FULL SCAN"));
+        Assert.assertTrue(deleteLine, deleteLine.contains("plan=<none>"));
+    }
+
+    @Test
+    public void testParametersAreTheBoundValues() throws Exception {
+        SqlConnection db = sqlService.getDb();
+        for (int i = 1; i <= 3; i++) {
+            SqlRequest request = db.getCreateBuilder(DummyObject.TYPE)
+                  .set(DummyObject.ID, i)
+                  .getRequest();
+            request.run();
+            request.close();
+        }
+        List<Object> parameters = new ArrayList<>();
+        QueryListener listener = (kind, shape, prepareNanos, executeNanos, rows, bytes, details) -> {
+            if (kind == QueryListener.Kind.SELECT) {
+                parameters.addAll(details.getParameters());
+            }
+        };
+        sqlService.addQueryListener(listener);
+        ValueIntegerAccessor id = new ValueIntegerAccessor(0);
+        try (Stream<Glob> stream = db.getQueryBuilder(DummyObject.TYPE, Constraints.strictlyBigger(DummyObject.ID, id))
+              .selectAll()
+              .getQuery().executeAsStream()) {
+            Iterator<Glob> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                id.setValue(iterator.next().get(DummyObject.ID));
+            }
+        }
+        sqlService.removeQueryListener(listener);
+        db.commitAndClose();
+        Assert.assertEquals(Collections.singletonList(0), parameters);
+    }
+
+    @Test
+    public void testThresholdSamplingAndRotation() throws Exception {
+        Path path = Files.createTempFile("slowQuery", ".log");
+        Path rotated = Paths.get(path + ".1");
+        SlowQueryLog slowQueryLog = new SlowQueryLog(path, 1, TimeUnit.SECONDS)
+              .sampleRate(2)
+              .rotation(200, 2);
+        slowQueryLog.onStatement(QueryListener.Kind.SELECT, "fast", 0, 1000, 1, -1, null);
+        Assert.assertEquals(0, slowQueryLog.getSlowCount());
+        for (int i = 0; i < 6; i++) {
+            slowQueryLog.onStatement(QueryListener.Kind.SELECT, "select " + i, 0, TimeUnit.SECONDS.toNanos(2), 1, -1, null);
+        }
+        slowQueryLog.close();
+        Assert.assertEquals(6, slowQueryLog.getSlowCount());
+
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8) +
+                         new String(Files.readAllBytes(rotated), StandardCharsets.UTF_8);
+        Files.delete(path);
+        Files.delete(rotated);
+        Assert.assertTrue(content, content.contains("select 0") && content.contains("select 4"));
+        Assert.assertFalse(content, content.contains("select 1"));
+    }
+}
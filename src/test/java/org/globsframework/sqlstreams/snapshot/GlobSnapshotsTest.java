@@ -0,0 +1,114 @@
+package org.globsframework.sqlstreams.snapshot;
+
+import org.globsframework.metamodel.GlobModel;
+import org.globsframework.model.DummyObject;
+import org.globsframework.model.GlobList;
+import org.globsframework.sqlstreams.BulkDbRequest;
+import org.globsframework.sqlstreams.CreateBuilder;
+import org.globsframework.sqlstreams.drivers.jdbc.DbServicesTestCase;
+import org.globsframework.streams.accessors.*;
+import org.globsframework.streams.accessors.utils.*;
+import org.globsframework.xml.XmlGlobStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GlobSnapshotsTest extends DbServicesTestCase {
+
+    @Test
+    public void testExportAndRestore() throws Exception {
+        ValueIntegerAccessor id = new ValueIntegerAccessor();
+        ValueStringAccessor name = new ValueStringAccessor(null);
+        ValueDoubleAccessor value = new ValueDoubleAccessor(null);
+        ValueBooleanAccessor present = new ValueBooleanAccessor(null);
+        ValueBlobAccessor password = new ValueBlobAccessor(null);
+        CreateBuilder createBuilder = sqlConnection.getCreateBuilder(DummyObject.TYPE)
+              .set(DummyObject.ID, id)
+              .set(DummyObject.NAME, name)
+              .set(DummyObject.VALUE, value)
+              .set(DummyObject.PRESENT, present)
+              .set(DummyObject.PASSWORD, password);
+        BulkDbRequest request = createBuilder.getBulkRequest();
+        for (int i = 0; i < 21; i++) {
+            id.setValue(i);
+            name.setValue(i % 3 == 0 ? null : "name " + i);
+            value.setValue(i % 4 == 0 ? null : i * 1.5);
+            present.setValue(i % 2 == 0);
+            password.setValue(i % 5 == 0 ? null : ("pwd" + i).getBytes());
+            request.run();
+        }
+        request.close();
+        sqlConnection.commit();
+        GlobList expected = sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll()
+              .orderAsc(DummyObject.ID).getQuery().executeAsGlobs();
+
+        Path path = Files.createTempFile("dummyObject", ".snapshot");
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                Assert.assertEquals(21, new GlobSnapshotWriter(channel, 8)
+                      .write(DummyObject.TYPE, sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().getQuery().execute()));
+            }
+            sqlConnection.emptyTable(DummyObject.TYPE);
+            sqlConnection.commit();
+
+            Assert.assertEquals(21, GlobSnapshots.restore(sqlConnection, path, globModel::getType));
+            sqlConnection.commit();
+            check(expected);
+
+            Assert.assertEquals(21, GlobSnapshots.export(sqlConnection, DummyObject.TYPE, path));
+            sqlConnection.emptyTable(DummyObject.TYPE);
+            Assert.assertEquals(21, GlobSnapshots.restore(sqlConnection, path, globModel::getType));
+            sqlConnection.commit();
+            check(expected);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMappedReader() throws Exception {
+        populate(sqlConnection, XmlGlobStreamReader.parse(
+              "<dummyObject id='1' name='hello' value='1.1' present='true'/>" +
+                    "<dummyObject id='2' value='2.2' present='false'/>" +
+                    "<dummyObject id='3' name='world' present='false'/>" +
+                    "<dummyObject id='4' name='other' value='4.4'/>", directory.get(GlobModel.class)));
+        Path path = Files.createTempFile("dummyObject", ".snapshot");
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                new GlobSnapshotWriter(channel, 8).write(DummyObject.TYPE,
+                      sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll().orderAsc(DummyObject.ID).getQuery().execute());
+            }
+            MappedGlobSnapshotReader reader = new MappedGlobSnapshotReader(path, globModel::getType, 16);
+            IntegerAccessor id = (IntegerAccessor) reader.getAccessor(DummyObject.ID);
+            StringAccessor name = (StringAccessor) reader.getAccessor(DummyObject.NAME);
+            DoubleAccessor value = (DoubleAccessor) reader.getAccessor(DummyObject.VALUE);
+            BooleanAccessor present = (BooleanAccessor) reader.getAccessor(DummyObject.PRESENT);
+            StringBuilder builder = new StringBuilder();
+            while (reader.next()) {
+                builder.append(id.getInteger()).append(":").append(name.getString()).append(":")
+                      .append(value.getDouble()).append(":").append(present.getBoolean()).append(" ");
+            }
+            reader.close();
+            Assert.assertEquals("1:hello:1.1:true 2:null:2.2:false 3:world:null:false 4:other:4.4:null ", builder.toString());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private void check(GlobList expected) {
+        GlobList actual = sqlConnection.getQueryBuilder(DummyObject.TYPE).selectAll()
+              .orderAsc(DummyObject.ID).getQuery().executeAsGlobs();
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).get(DummyObject.ID), actual.get(i).get(DummyObject.ID));
+            Assert.assertEquals(expected.get(i).get(DummyObject.NAME), actual.get(i).get(DummyObject.NAME));
+            Assert.assertEquals(expected.get(i).get(DummyObject.VALUE), actual.get(i).get(DummyObject.VALUE));
+            Assert.assertEquals(expected.get(i).get(DummyObject.PRESENT), actual.get(i).get(DummyObject.PRESENT));
+            Assert.assertArrayEquals(expected.get(i).get(DummyObject.PASSWORD), actual.get(i).get(DummyObject.PASSWORD));
+        }
+    }
+}